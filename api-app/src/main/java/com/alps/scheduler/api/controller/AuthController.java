@@ -1,20 +1,20 @@
 package com.alps.scheduler.api.controller;
 
 import com.alps.scheduler.api.model.User;
+import com.alps.scheduler.api.security.GoogleIdTokenService;
 import com.alps.scheduler.api.security.JwtUtil;
 import com.alps.scheduler.api.service.UserService;
+import com.alps.scheduler.api.tenant.TenantContext;
+import com.alps.scheduler.api.tenant.TenantRegistry;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -27,9 +27,8 @@ public class AuthController {
 
     private final JwtUtil jwtUtil;
     private final UserService userService;
-
-    @Value("${google.oauth.client-id}")
-    private String googleClientId;
+    private final TenantRegistry tenantRegistry;
+    private final GoogleIdTokenService googleIdTokenService;
 
     @PostMapping("/google")
     public ResponseEntity<?> authenticateWithGoogle(@RequestBody Map<String, String> request) {
@@ -39,14 +38,17 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("error", "Google token is required"));
         }
 
-        try {
-            // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
+        // The property to sign in to; may be omitted when this instance serves only one
+        String tenant = request.get("tenant") != null ? request.get("tenant") : tenantRegistry.getDefaultId();
+        if (!tenantRegistry.contains(tenant)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown or missing tenant"));
+        }
 
-            GoogleIdToken idToken = verifier.verify(googleToken);
+        long startedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            // Verify Google ID token against the cached signing certificates
+            GoogleIdToken idToken = googleIdTokenService.verify(googleToken);
 
             if (idToken == null) {
                 log.warn("Invalid Google token received");
@@ -59,10 +61,10 @@ public class AuthController {
             String name = (String) payload.get("name");
             String picture = (String) payload.get("picture");
 
-            log.info("Google auth successful for email: {}", email);
+            log.info("Google auth successful for email: {} (tenant {})", email, tenant);
 
-            // Check if user exists in Users sheet and is enabled
-            Optional<User> userOpt = userService.getUserByEmail(email);
+            // Check if user exists in the tenant's Users sheet and is enabled
+            Optional<User> userOpt = TenantContext.call(tenant, () -> userService.getUserByEmail(email));
 
             if (userOpt.isEmpty()) {
                 log.warn("User not found in Users sheet: {}", email);
@@ -79,10 +81,11 @@ public class AuthController {
             }
 
             // Generate JWT token with user role
-            String jwt = jwtUtil.generateToken(email, user.getRole(), user.getStatus());
+            String jwt = jwtUtil.generateToken(email, user.getRole(), user.getStatus(), tenant);
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", jwt);
+            response.put("tenant", tenant);
             response.put("email", email);
             response.put("name", name);
             response.put("picture", picture);
@@ -90,12 +93,15 @@ public class AuthController {
             response.put("status", user.getStatus());
 
             log.info("JWT issued for user: {} with role: {}", email, user.getRole());
+            success = true;
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             log.error("Authentication error: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Authentication failed: " + e.getMessage()));
+        } finally {
+            googleIdTokenService.recordLogin(startedAt, success);
         }
     }
 
@@ -109,22 +115,20 @@ public class AuthController {
         String token = authHeader.substring(7);
 
         try {
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.extractEmail(token);
-                String role = jwtUtil.extractRole(token);
-                String status = jwtUtil.extractStatus(token);
-
-                Map<String, Object> response = new HashMap<>();
-                response.put("valid", true);
-                response.put("email", email);
-                response.put("role", role);
-                response.put("status", status);
-
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("valid", false, "error", "Token expired"));
-            }
+            Claims claims = jwtUtil.parseToken(token);
+            String tenant = claims.get("tenant", String.class);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("valid", true);
+            response.put("tenant", tenant != null ? tenant : tenantRegistry.getDefaultId());
+            response.put("email", claims.getSubject());
+            response.put("role", claims.get("role", String.class));
+            response.put("status", claims.get("status", String.class));
+
+            return ResponseEntity.ok(response);
+        } catch (ExpiredJwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("valid", false, "error", "Token expired"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("valid", false, "error", "Invalid token"));
@@ -141,12 +145,17 @@ public class AuthController {
         String token = authHeader.substring(7);
 
         try {
-            String email = jwtUtil.extractEmail(token);
-            String role = jwtUtil.extractRole(token);
-            String status = jwtUtil.extractStatus(token);
+            Claims claims = jwtUtil.parseToken(token);
+            String email = claims.getSubject();
+            String tenant = claims.get("tenant", String.class) != null
+                    ? claims.get("tenant", String.class) : tenantRegistry.getDefaultId();
+            if (!tenantRegistry.contains(tenant)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Unknown tenant"));
+            }
 
             // Verify user is still active
-            Optional<User> userOpt = userService.getUserByEmail(email);
+            Optional<User> userOpt = TenantContext.call(tenant, () -> userService.getUserByEmail(email));
             if (userOpt.isEmpty() || !"Enabled".equalsIgnoreCase(userOpt.get().getStatus())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "User account is no longer active"));
@@ -154,10 +163,11 @@ public class AuthController {
 
             // Issue new token with updated role (in case it changed)
             User user = userOpt.get();
-            String newToken = jwtUtil.generateToken(email, user.getRole(), user.getStatus());
+            String newToken = jwtUtil.generateToken(email, user.getRole(), user.getStatus(), tenant);
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", newToken);
+            response.put("tenant", tenant);
             response.put("email", email);
             response.put("role", user.getRole());
             response.put("status", user.getStatus());
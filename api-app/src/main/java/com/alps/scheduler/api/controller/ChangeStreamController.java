@@ -0,0 +1,42 @@
+package com.alps.scheduler.api.controller;
+
+import com.alps.scheduler.api.service.ChangeStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller streaming task and user changes as Server-Sent Events.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ChangeStreamController {
+
+    private final ChangeStreamService changeStreamService;
+
+    /**
+     * Subscribe to "snapshot", "tasks" and "users" events.
+     * EventSource cannot send headers, so the JWT may be passed as a query parameter.
+     * GET /api/events?access_token=...
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe() {
+        SseEmitter emitter = changeStreamService.subscribe();
+        if (emitter == null) {
+            log.warn("Rejected change stream subscription: subscriber limit reached");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // nginx must not buffer the stream
+                .body(emitter);
+    }
+}
@@ -1,16 +1,27 @@
 package com.alps.scheduler.api.controller;
 
+import com.alps.scheduler.api.model.CompactSchedule;
+import com.alps.scheduler.api.model.DaySchedule;
+import com.alps.scheduler.api.model.Occurrence;
 import com.alps.scheduler.api.model.Task;
 import com.alps.scheduler.api.service.TaskSchedulerService;
+import com.alps.scheduler.api.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Controller for retrieving scheduled tasks based on dates/periods.
@@ -23,7 +34,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ScheduleController {
 
+    private static final int MAX_UPCOMING = 1000;
+    private static final int MAX_STATS_YEARS = 20;
+
     private final TaskSchedulerService taskSchedulerService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get scheduled tasks for today
@@ -123,6 +138,16 @@ public class ScheduleController {
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Stream scheduled tasks for a year, one JSON line per day
+     * GET /api/schedule/year/2025 (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/year/{year}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasksForYear(@PathVariable int year) {
+        log.info("Streaming scheduled tasks for year: {}", year);
+        return streamDays(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
     /**
      * Get scheduled tasks for a date range
      * GET /api/schedule/range?start=2025-11-01&end=2025-11-30
@@ -136,6 +161,89 @@ public class ScheduleController {
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Stream scheduled tasks for a date range, one JSON line per day
+     * GET /api/schedule/range?start=2025-01-01&end=2030-12-31 (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasksForDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        log.info("Streaming scheduled tasks for range: {} to {}", start, end);
+        return streamDays(start, end);
+    }
+
+    /**
+     * Get scheduled tasks for current week in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/week?format=compact
+     */
+    @GetMapping(value = "/week", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForCurrentWeek() {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForCurrentWeek(LocalDate.now())));
+    }
+
+    /**
+     * Get scheduled tasks for a specific week in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/week/2025-11-18?format=compact
+     */
+    @GetMapping(value = "/week/{date}", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForWeek(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForCurrentWeek(date)));
+    }
+
+    /**
+     * Get scheduled tasks for a month in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/month/2025/11?format=compact
+     */
+    @GetMapping(value = "/month/{year}/{month}", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForMonth(
+            @PathVariable int year,
+            @PathVariable int month) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForMonth(year, month)));
+    }
+
+    /**
+     * Get scheduled tasks for a quarter in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/quarter/2025/1?format=compact
+     */
+    @GetMapping(value = "/quarter/{year}/{quarter}", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForQuarter(
+            @PathVariable int year,
+            @PathVariable int quarter) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForQuarter(year, quarter)));
+    }
+
+    /**
+     * Get scheduled tasks for a half-year in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/half-year/2025/1?format=compact
+     */
+    @GetMapping(value = "/half-year/{year}/{half}", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForHalfYear(
+            @PathVariable int year,
+            @PathVariable int half) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForHalfYear(year, half)));
+    }
+
+    /**
+     * Get scheduled tasks for a year in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/year/2025?format=compact
+     */
+    @GetMapping(value = "/year/{year}", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForYear(@PathVariable int year) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForYear(year)));
+    }
+
+    /**
+     * Get scheduled tasks for a date range in compact form (task dictionary + indexes per date)
+     * GET /api/schedule/range?start=2025-11-01&end=2025-11-30&format=compact
+     */
+    @GetMapping(value = "/range", params = "format=compact")
+    public ResponseEntity<CompactSchedule> getCompactTasksForDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return ResponseEntity.ok(CompactSchedule.of(taskSchedulerService.getTasksForDateRange(start, end)));
+    }
+
     /**
      * Get scheduled tasks for today filtered by department
      * GET /api/schedule/today/department/MEP
@@ -144,10 +252,110 @@ public class ScheduleController {
     public ResponseEntity<List<Task>> getTodayTasksByDepartment(@PathVariable String department) {
         LocalDate today = LocalDate.now();
         log.info("Fetching scheduled tasks for today for department: {}", department);
-        List<Task> allTasks = taskSchedulerService.getTasksForDate(today);
-        List<Task> filteredTasks = allTasks.stream()
-                .filter(t -> t.getDepartment().equalsIgnoreCase(department))
-                .toList();
-        return ResponseEntity.ok(filteredTasks);
+        List<Task> tasks = taskSchedulerService.getTasksForDateByDepartment(today, department);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Get the next occurrences across all tasks
+     * GET /api/schedule/upcoming?limit=10&from=2025-11-18
+     */
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<Occurrence>> getUpcomingOccurrences(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        log.info("Fetching next {} occurrences from {}", limit, start);
+        return ResponseEntity.ok(taskSchedulerService.getUpcomingOccurrences(start, clampLimit(limit)));
+    }
+
+    /**
+     * Get the next occurrences of a department's tasks
+     * GET /api/schedule/upcoming/department/MEP?limit=1
+     */
+    @GetMapping("/upcoming/department/{department}")
+    public ResponseEntity<List<Occurrence>> getUpcomingOccurrencesByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        log.info("Fetching next {} occurrences for department {} from {}", limit, department, start);
+        return ResponseEntity.ok(
+                taskSchedulerService.getUpcomingOccurrencesByDepartment(department, start, clampLimit(limit)));
+    }
+
+    /**
+     * Get the next scheduled dates of a single task
+     * GET /api/schedule/upcoming/task/5?limit=10
+     */
+    @GetMapping("/upcoming/task/{rowNumber}")
+    public ResponseEntity<List<LocalDate>> getUpcomingDatesForTask(
+            @PathVariable int rowNumber,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        log.info("Fetching next {} dates for task at row {} from {}", limit, rowNumber, start);
+        Optional<List<LocalDate>> dates =
+                taskSchedulerService.getUpcomingDatesForTask(rowNumber, start, clampLimit(limit));
+        return dates.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Write each scheduled day as soon as it is evaluated and flush it, so the first
+     * day reaches the client right away and only one day is held in memory
+     */
+    private ResponseEntity<StreamingResponseBody> streamDays(LocalDate start, LocalDate end) {
+        // The body is written on an async thread, which does not inherit the request's tenant
+        String tenant = TenantContext.get();
+        StreamingResponseBody body = out -> {
+            TenantContext.set(tenant);
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                taskSchedulerService.forEachScheduledDay(start, end, (date, tasks) -> {
+                    try {
+                        generator.writeObject(new DaySchedule(date, tasks));
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                TenantContext.clear();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Get task counts per department and day/week/month (defaults to the current year by month)
+     * GET /api/schedule/stats?start=2025-01-01&end=2025-12-31&period=week
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getWorkloadStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "month") String period) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = start != null ? start : today.withDayOfYear(1);
+        LocalDate to = end != null ? end : from.withDayOfYear(1).plusYears(1).minusDays(1);
+        if (to.isBefore(from) || to.isAfter(from.plusYears(MAX_STATS_YEARS))) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "end must be on or after start and within " + MAX_STATS_YEARS + " years"));
+        }
+        log.info("Computing {} workload stats from {} to {}", period, from, to);
+        try {
+            return ResponseEntity.ok(taskSchedulerService.getWorkloadStats(from, to, period));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_UPCOMING));
     }
 }
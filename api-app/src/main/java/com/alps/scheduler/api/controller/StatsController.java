@@ -0,0 +1,131 @@
+package com.alps.scheduler.api.controller;
+
+import com.alps.scheduler.api.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.api.security.GoogleIdTokenService;
+import com.alps.scheduler.api.security.JwtUtil;
+import com.alps.scheduler.api.service.ChangeStreamService;
+import com.alps.scheduler.api.service.OccurrenceTableService;
+import com.alps.scheduler.api.service.TaskSearchService;
+import com.alps.scheduler.api.service.TaskSnapshotService;
+import com.alps.scheduler.api.service.UserService;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import com.alps.scheduler.api.web.SnapshotEtagFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller exposing runtime counters of the in-memory caches.
+ * Per-tenant counters are those of the caller's tenant.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final TaskSnapshotService taskSnapshotService;
+    private final OccurrenceIndexCache occurrenceIndexCache;
+    private final OccurrenceTableService occurrenceTableService;
+    private final SnapshotEtagFilter snapshotEtagFilter;
+    private final TaskSearchService taskSearchService;
+    private final ChangeStreamService changeStreamService;
+    private final TenantRegistry tenantRegistry;
+    private final GoogleIdTokenService googleIdTokenService;
+    private final UserService userService;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Get task snapshot cache counters (hits, misses, version, age)
+     * GET /api/stats/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(taskSnapshotService.getStats());
+    }
+
+    /**
+     * Get per-year occurrence index counters (cached years, builds, evictions)
+     * GET /api/stats/index
+     */
+    @GetMapping("/index")
+    public ResponseEntity<Map<String, Object>> getIndexStats() {
+        return ResponseEntity.ok(occurrenceIndexCache.getStats(tenantRegistry.current().getId()));
+    }
+
+    /**
+     * Get rolling occurrence table counters (window, builds, incremental patches)
+     * GET /api/stats/table
+     */
+    @GetMapping("/table")
+    public ResponseEntity<Map<String, Object>> getTableStats() {
+        return ResponseEntity.ok(occurrenceTableService.getStats(tenantRegistry.current().getId()));
+    }
+
+    /**
+     * Get conditional GET counters (requests, 304 responses, 304 ratio)
+     * GET /api/stats/etag
+     */
+    @GetMapping("/etag")
+    public ResponseEntity<Map<String, Object>> getEtagStats() {
+        return ResponseEntity.ok(snapshotEtagFilter.getStats());
+    }
+
+    /**
+     * Get task search index counters (terms, builds, incremental patches)
+     * GET /api/stats/search
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> getSearchStats() {
+        return ResponseEntity.ok(taskSearchService.getStats(tenantRegistry.current().getId()));
+    }
+
+    /**
+     * Get change event stream counters (open streams, events, dropped clients)
+     * GET /api/stats/events
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEventStats() {
+        return ResponseEntity.ok(changeStreamService.getStats());
+    }
+
+    /**
+     * Get Google Sheets request quota counters of the caller's tenant (budget, used, rejected)
+     * GET /api/stats/quota
+     */
+    @GetMapping("/quota")
+    public ResponseEntity<Map<String, Object>> getQuotaStats() {
+        return ResponseEntity.ok(tenantRegistry.current().getQuota().getStats());
+    }
+
+    /**
+     * Get Google sign-in counters (verify and login latency, signing certificate refreshes)
+     * GET /api/stats/auth
+     */
+    @GetMapping("/auth")
+    public ResponseEntity<Map<String, Object>> getAuthStats() {
+        return ResponseEntity.ok(googleIdTokenService.getStats());
+    }
+
+    /**
+     * Get user directory counters of the caller's tenant (users, age, hits, reloads)
+     * GET /api/stats/users
+     */
+    @GetMapping("/users")
+    public ResponseEntity<Map<String, Object>> getUserStats() {
+        return ResponseEntity.ok(userService.getStats());
+    }
+
+    /**
+     * Get verified-token cache counters (cached tokens, hits, misses)
+     * GET /api/stats/jwt
+     */
+    @GetMapping("/jwt")
+    public ResponseEntity<Map<String, Object>> getJwtStats() {
+        return ResponseEntity.ok(jwtUtil.getStats());
+    }
+}
@@ -34,6 +34,19 @@ public class TaskMasterController {
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Search task master records by activity, department and comments (prefix match, ranked)
+     * GET /api/master/tasks/search?q=fire ext&limit=20
+     */
+    @GetMapping("/tasks/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Searching task master records for: {}", q);
+        List<Task> tasks = taskSchedulerService.searchTasks(q, Math.max(1, Math.min(limit, 500)));
+        return ResponseEntity.ok(tasks);
+    }
+
     /**
      * Get a task master record by row number
      * GET /api/master/tasks/5
@@ -121,10 +134,7 @@ public class TaskMasterController {
     @GetMapping("/tasks/frequency/{frequency}")
     public ResponseEntity<List<Task>> getTasksByFrequency(@PathVariable String frequency) {
         log.info("Fetching task master records for frequency: {}", frequency);
-        List<Task> allTasks = taskSchedulerService.getAllTasks();
-        List<Task> filteredTasks = allTasks.stream()
-                .filter(t -> t.getFrequency().equalsIgnoreCase(frequency))
-                .toList();
-        return ResponseEntity.ok(filteredTasks);
+        List<Task> tasks = taskSchedulerService.getTasksByFrequency(frequency);
+        return ResponseEntity.ok(tasks);
     }
 }
@@ -0,0 +1,8 @@
+package com.alps.scheduler.api.model;
+
+/**
+ * Kind of single-row write made through the API to the Tasks-Master or Users sheet.
+ */
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
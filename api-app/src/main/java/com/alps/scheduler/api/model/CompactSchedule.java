@@ -0,0 +1,44 @@
+package com.alps.scheduler.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded schedule: every task is sent once, and each date lists
+ * positions in {@link #tasks} instead of repeating the task itself.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactSchedule {
+    private List<Task> tasks;
+    private Map<LocalDate, int[]> days;
+
+    public static CompactSchedule of(Map<LocalDate, List<Task>> tasksByDate) {
+        // Tasks of one snapshot are shared instances, so identity is enough to deduplicate
+        Map<Task, Integer> positions = new IdentityHashMap<>();
+        List<Task> dictionary = new ArrayList<>();
+        Map<LocalDate, int[]> days = new LinkedHashMap<>();
+        tasksByDate.forEach((date, tasks) -> {
+            int[] indexes = new int[tasks.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = positions.computeIfAbsent(tasks.get(i), task -> {
+                    dictionary.add(task);
+                    return dictionary.size() - 1;
+                });
+            }
+            days.put(date, indexes);
+        });
+        return new CompactSchedule(dictionary, days);
+    }
+}
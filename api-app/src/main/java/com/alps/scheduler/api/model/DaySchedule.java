@@ -0,0 +1,18 @@
+package com.alps.scheduler.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaySchedule {
+    private LocalDate date;
+    private List<Task> tasks;
+}
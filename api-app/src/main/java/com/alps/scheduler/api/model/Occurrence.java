@@ -0,0 +1,17 @@
+package com.alps.scheduler.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Occurrence {
+    private LocalDate date;
+    private Task task;
+}
@@ -0,0 +1,30 @@
+package com.alps.scheduler.api.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A write made through the API to a single Tasks-Master row, passed along with the
+ * reload that follows it so that derived data can be patched instead of rebuilt.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class TaskChange {
+
+    private final ChangeType type;
+    private final int rowNumber;
+
+    public static TaskChange created(int rowNumber) {
+        return new TaskChange(ChangeType.CREATED, rowNumber);
+    }
+
+    public static TaskChange updated(int rowNumber) {
+        return new TaskChange(ChangeType.UPDATED, rowNumber);
+    }
+
+    public static TaskChange deleted(int rowNumber) {
+        return new TaskChange(ChangeType.DELETED, rowNumber);
+    }
+}
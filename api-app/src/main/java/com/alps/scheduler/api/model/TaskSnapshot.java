@@ -0,0 +1,138 @@
+package com.alps.scheduler.api.model;
+
+import com.alps.scheduler.api.schedule.Frequency;
+import com.alps.scheduler.api.schedule.ScheduleRule;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of the Tasks-Master sheet of one tenant as it was at {@link #getLoadedAt()}.
+ * The version (per tenant) increases every time the sheet content changes; the fingerprint is a
+ * content hash and stays the same across restarts for identical sheet data.
+ * Tasks are also indexed by case-folded department and by frequency, as positions in {@link #getTasks()}.
+ */
+@Getter
+public final class TaskSnapshot {
+
+    private static final int[] NONE = new int[0];
+
+    private final String tenant;
+    private final long version;
+    private final String fingerprint;
+    private final List<Task> tasks;
+    private final List<ScheduleRule> rules; // rules.get(i) is the compiled schedule of tasks.get(i)
+    private final Instant loadedAt;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, int[]> tasksByDepartment; // keyed by departmentKey()
+    @Getter(AccessLevel.NONE)
+    private final Map<Frequency, int[]> tasksByFrequency;
+
+    public TaskSnapshot(String tenant, long version, List<Task> tasks, String fingerprint, Instant loadedAt) {
+        this.tenant = tenant;
+        this.version = version;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.rules = tasks.stream().map(ScheduleRule::compile).toList();
+        this.fingerprint = fingerprint;
+        this.loadedAt = loadedAt;
+
+        Map<String, List<Integer>> byDepartment = new HashMap<>();
+        Map<Frequency, List<Integer>> byFrequency = new EnumMap<>(Frequency.class);
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            byDepartment.computeIfAbsent(departmentKey(task.getDepartment()), key -> new ArrayList<>()).add(i);
+            Frequency frequency = Frequency.fromLabel(task.getFrequency());
+            if (frequency != null) {
+                byFrequency.computeIfAbsent(frequency, key -> new ArrayList<>()).add(i);
+            }
+        }
+        this.tasksByDepartment = new HashMap<>();
+        byDepartment.forEach((key, list) -> tasksByDepartment.put(key, toArray(list)));
+        this.tasksByFrequency = new EnumMap<>(Frequency.class);
+        byFrequency.forEach((key, list) -> tasksByFrequency.put(key, toArray(list)));
+    }
+
+    /**
+     * Positions of a department's tasks (case-insensitive), in sheet order
+     */
+    public int[] getTaskIndexesInDepartment(String department) {
+        return tasksByDepartment.getOrDefault(departmentKey(department), NONE);
+    }
+
+    /**
+     * Tasks of a department (case-insensitive), in sheet order
+     */
+    public List<Task> getTasksInDepartment(String department) {
+        return resolve(getTaskIndexesInDepartment(department));
+    }
+
+    /**
+     * Tasks whose Frequency column matches a value case-insensitively, in sheet order
+     */
+    public List<Task> getTasksWithFrequency(String value) {
+        Frequency frequency = Frequency.fromLabel(value);
+        if (frequency != null) {
+            return resolve(tasksByFrequency.getOrDefault(frequency, NONE));
+        }
+        // Values outside the known frequencies are not indexed
+        return tasks.stream()
+                .filter(task -> task.getFrequency() != null && task.getFrequency().equalsIgnoreCase(value))
+                .toList();
+    }
+
+    /**
+     * Case-folded department name used as index key
+     */
+    public static String departmentKey(String department) {
+        return department == null ? "" : department.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Content hash over every task field, in sheet order
+     */
+    public static String fingerprintOf(List<Task> tasks) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Task task : tasks) {
+                StringBuilder row = new StringBuilder()
+                        .append(task.getRowNumber()).append('\u001f')
+                        .append(task.getActivity()).append('\u001f')
+                        .append(task.getDepartment()).append('\u001f')
+                        .append(task.getFrequency()).append('\u001f')
+                        .append(task.getNoOfTimes()).append('\u001f')
+                        .append(task.getSpecificDates()).append('\u001f')
+                        .append(task.getComments()).append('\u001f')
+                        .append(task.getRecurrenceRule()).append('\u001e');
+                digest.update(row.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private List<Task> resolve(int[] indexes) {
+        List<Task> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(tasks.get(index));
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.alps.scheduler.api.schedule;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Splits long date ranges into chunks and evaluates them on a bounded fork-join pool.
+ * Ranges up to the threshold (a day, a week, a month) stay on the calling thread.
+ */
+@Slf4j
+@Component
+public class DateRangeExpander {
+
+    private final ForkJoinPool pool;
+    private final int thresholdDays;
+    private final int chunkDays;
+
+    public DateRangeExpander(@Value("${scheduler.range.parallelism:4}") int parallelism,
+                             @Value("${scheduler.range.parallel-threshold-days:366}") int thresholdDays,
+                             @Value("${scheduler.range.chunk-days:92}") int chunkDays) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.thresholdDays = thresholdDays;
+        this.chunkDays = Math.max(1, chunkDays);
+        log.info("Date range expansion: parallelism {}, threshold {} days, chunks of {} days",
+                pool.getParallelism(), thresholdDays, this.chunkDays);
+    }
+
+    /**
+     * Call the evaluator for consecutive, non-overlapping chunks that together cover
+     * start..end (inclusive). Chunks may run concurrently, so the evaluator must only
+     * write to state owned by its own dates; everything it wrote is visible once this returns.
+     */
+    public void forEachChunk(LocalDate start, LocalDate end, BiConsumer<LocalDate, LocalDate> evaluator) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days <= 0) {
+            return;
+        }
+        if (days <= thresholdDays) {
+            evaluator.accept(start, end);
+            return;
+        }
+        pool.invoke(new Chunk(start, days, evaluator));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private class Chunk extends RecursiveAction {
+
+        private final LocalDate start;
+        private final long days;
+        private final BiConsumer<LocalDate, LocalDate> evaluator;
+
+        Chunk(LocalDate start, long days, BiConsumer<LocalDate, LocalDate> evaluator) {
+            this.start = start;
+            this.days = days;
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        protected void compute() {
+            if (days <= chunkDays) {
+                evaluator.accept(start, start.plusDays(days - 1));
+                return;
+            }
+            long half = days / 2;
+            invokeAll(new Chunk(start, half, evaluator),
+                    new Chunk(start.plusDays(half), days - half, evaluator));
+        }
+    }
+}
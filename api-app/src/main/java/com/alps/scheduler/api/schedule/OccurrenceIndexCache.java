@@ -0,0 +1,126 @@
+package com.alps.scheduler.api.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lazily built {@link YearOccurrenceIndex} per tenant and calendar year, bounded per tenant
+ * with LRU eviction.
+ * Frequency/Comments rules are only evaluated once per year shape (leap year, weekday of Jan 1);
+ * any other year of an already computed shape reuses that template's bits.
+ * All entries of a tenant belong to one task snapshot; a different snapshot key empties
+ * that tenant's years and leaves every other tenant alone.
+ */
+@Slf4j
+@Component
+public class OccurrenceIndexCache {
+
+    private final int maxYears;
+    private final Map<String, TenantYears> byTenant = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong templateHits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OccurrenceIndexCache(@Value("${scheduler.index.max-years:8}") int maxYears) {
+        this.maxYears = maxYears;
+    }
+
+    /**
+     * Get the index of a year for the given snapshot, building it on first use
+     *
+     * @param tenant      the tenant the task list belongs to
+     * @param snapshotKey identifies the task list the rules were compiled from
+     */
+    public YearOccurrenceIndex get(String tenant, Object snapshotKey, List<ScheduleRule> rules, int year) {
+        TenantYears cache = byTenant.computeIfAbsent(tenant, key -> new TenantYears());
+        synchronized (cache) {
+            if (!snapshotKey.equals(cache.snapshotKey)) {
+                cache.byYear.clear();
+                Arrays.fill(cache.templates, null);
+                cache.snapshotKey = snapshotKey;
+            }
+            YearOccurrenceIndex index = cache.byYear.get(year);
+            if (index != null) {
+                hits.incrementAndGet();
+                return index;
+            }
+            YearOccurrenceIndex template = cache.templates[YearOccurrenceIndex.shapeOf(year)];
+            if (template != null) {
+                templateHits.incrementAndGet();
+                index = template.forYear(year, rules);
+                cache.byYear.put(year, index);
+                return index;
+            }
+        }
+
+        YearOccurrenceIndex index = YearOccurrenceIndex.build(year, rules);
+        builds.incrementAndGet();
+        log.debug("Built occurrence index for {} ({} tasks) for tenant {}", year, rules.size(), tenant);
+
+        synchronized (cache) {
+            // Only keep it if no newer snapshot arrived while we were building
+            if (snapshotKey.equals(cache.snapshotKey)) {
+                int shape = YearOccurrenceIndex.shapeOf(year);
+                if (cache.templates[shape] == null) {
+                    cache.templates[shape] = index;
+                }
+                cache.byYear.putIfAbsent(year, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index counters for monitoring; cached years are those of the given tenant
+     */
+    public Map<String, Object> getStats(String tenant) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        TenantYears cache = byTenant.get(tenant);
+        if (cache != null) {
+            synchronized (cache) {
+                stats.put("cachedYears", List.copyOf(cache.byYear.keySet()));
+                stats.put("cachedShapes", Arrays.stream(cache.templates).filter(Objects::nonNull).count());
+            }
+        } else {
+            stats.put("cachedYears", List.of());
+            stats.put("cachedShapes", 0L);
+        }
+        stats.put("maxYears", maxYears);
+        stats.put("tenants", byTenant.size());
+        stats.put("hits", hits.get());
+        stats.put("templateHits", templateHits.get());
+        stats.put("builds", builds.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    /**
+     * Years and templates of one tenant, guarded by the instance's own monitor
+     */
+    private final class TenantYears {
+
+        final YearOccurrenceIndex[] templates = new YearOccurrenceIndex[14];
+        final Map<Integer, YearOccurrenceIndex> byYear = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, YearOccurrenceIndex> eldest) {
+                if (size() > maxYears) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Object snapshotKey;
+    }
+}
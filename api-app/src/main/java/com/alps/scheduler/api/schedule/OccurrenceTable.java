@@ -0,0 +1,301 @@
+package com.alps.scheduler.api.schedule;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskSnapshot;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized occurrences of one task snapshot over a fixed window of days.
+ * Each day holds the indexes of its tasks in sheet order, plus the same indexes bucketed
+ * by department, so reading a day is an array lookup.
+ * Instances are immutable; the with/without methods return patched copies that share
+ * every day the change does not touch.
+ */
+public final class OccurrenceTable {
+
+    private static final int[] NONE = new int[0];
+
+    private final TaskSnapshot snapshot;
+    private final LocalDate start;
+    private final int[][] tasksByDay;
+    private final Map<String, int[]>[] departmentsByDay; // keyed by TaskSnapshot.departmentKey()
+
+    private OccurrenceTable(TaskSnapshot snapshot, LocalDate start,
+                            int[][] tasksByDay, Map<String, int[]>[] departmentsByDay) {
+        this.snapshot = snapshot;
+        this.start = start;
+        this.tasksByDay = tasksByDay;
+        this.departmentsByDay = departmentsByDay;
+    }
+
+    /**
+     * Evaluate every task of the snapshot over {@code days} days starting at {@code start}
+     */
+    public static OccurrenceTable build(TaskSnapshot snapshot, LocalDate start, int days) {
+        int[][] tasksByDay = new int[days][];
+        int[] counts = new int[days];
+        Arrays.fill(tasksByDay, NONE);
+
+        // Tasks are visited in sheet order, so appending keeps every day sorted
+        List<ScheduleRule> rules = snapshot.getRules();
+        LocalDate end = start.plusDays(days - 1);
+        for (int task = 0; task < rules.size(); task++) {
+            ScheduleRule rule = rules.get(task);
+            for (LocalDate date = rule.nextOccurrence(start); date != null && !date.isAfter(end);
+                 date = rule.nextOccurrence(date.plusDays(1))) {
+                int day = (int) ChronoUnit.DAYS.between(start, date);
+                if (counts[day] == tasksByDay[day].length) {
+                    tasksByDay[day] = Arrays.copyOf(tasksByDay[day], Math.max(8, counts[day] * 2));
+                }
+                tasksByDay[day][counts[day]++] = task;
+            }
+        }
+
+        Map<String, int[]>[] departmentsByDay = newDepartmentArray(days);
+        for (int day = 0; day < days; day++) {
+            tasksByDay[day] = counts[day] == 0 ? NONE : Arrays.copyOf(tasksByDay[day], counts[day]);
+            departmentsByDay[day] = bucket(snapshot.getTasks(), tasksByDay[day]);
+        }
+        return new OccurrenceTable(snapshot, start, tasksByDay, departmentsByDay);
+    }
+
+    /**
+     * The same table moved to a new first day; days already materialized are kept
+     * and only the days entering the window are evaluated.
+     */
+    public OccurrenceTable rolledTo(LocalDate newStart) {
+        int days = tasksByDay.length;
+        long shift = ChronoUnit.DAYS.between(start, newStart);
+        if (shift == 0) {
+            return this;
+        }
+        if (Math.abs(shift) >= days) {
+            return build(snapshot, newStart, days);
+        }
+
+        int[][] rolledTasks = new int[days][];
+        Map<String, int[]>[] rolledDepartments = newDepartmentArray(days);
+        List<ScheduleRule> rules = snapshot.getRules();
+        for (int day = 0; day < days; day++) {
+            long source = day + shift;
+            if (source >= 0 && source < days) {
+                rolledTasks[day] = tasksByDay[(int) source];
+                rolledDepartments[day] = departmentsByDay[(int) source];
+                continue;
+            }
+            LocalDate date = newStart.plusDays(day);
+            int[] scheduled = new int[rules.size()];
+            int count = 0;
+            for (int task = 0; task < rules.size(); task++) {
+                if (rules.get(task).matches(date)) {
+                    scheduled[count++] = task;
+                }
+            }
+            rolledTasks[day] = count == 0 ? NONE : Arrays.copyOf(scheduled, count);
+            rolledDepartments[day] = bucket(snapshot.getTasks(), rolledTasks[day]);
+        }
+        return new OccurrenceTable(snapshot, newStart, rolledTasks, rolledDepartments);
+    }
+
+    /**
+     * Patch in a task appended at {@code index} of the next snapshot
+     */
+    public OccurrenceTable withTaskAdded(TaskSnapshot next, int index) {
+        OccurrenceTable patched = copyFor(next);
+        patched.insert(index, next.getRules().get(index), next.getTasks().get(index));
+        return patched;
+    }
+
+    /**
+     * Patch in a task whose row changed in place
+     */
+    public OccurrenceTable withTaskReplaced(TaskSnapshot next, int index) {
+        OccurrenceTable patched = copyFor(next);
+        patched.remove(index, snapshot.getRules().get(index), snapshot.getTasks().get(index), false);
+        patched.insert(index, next.getRules().get(index), next.getTasks().get(index));
+        return patched;
+    }
+
+    /**
+     * Patch out a deleted task; every task below it moves up one index
+     */
+    public OccurrenceTable withTaskRemoved(TaskSnapshot next, int index) {
+        OccurrenceTable patched = copyFor(next);
+        patched.remove(index, snapshot.getRules().get(index), snapshot.getTasks().get(index), true);
+        return patched;
+    }
+
+    public TaskSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEnd() {
+        return start.plusDays(tasksByDay.length - 1);
+    }
+
+    /**
+     * Whether every date from start to end (inclusive) is materialized
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !from.isBefore(start) && !to.isAfter(getEnd());
+    }
+
+    /**
+     * Tasks of a covered date, in sheet order
+     */
+    public List<Task> tasksOn(LocalDate date) {
+        return resolve(tasksByDay[dayOf(date)]);
+    }
+
+    /**
+     * Tasks of a department on a covered date, in sheet order
+     */
+    public List<Task> tasksOn(LocalDate date, String department) {
+        return resolve(departmentsByDay[dayOf(date)].getOrDefault(TaskSnapshot.departmentKey(department), NONE));
+    }
+
+    /**
+     * Tasks of every non-empty day from start to end, both covered
+     */
+    public Map<LocalDate, List<Task>> tasksBetween(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<Task>> tasksByDate = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int[] scheduled = tasksByDay[dayOf(date)];
+            if (scheduled.length > 0) {
+                tasksByDate.put(date, resolve(scheduled));
+            }
+        }
+        return tasksByDate;
+    }
+
+    private int dayOf(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(start, date);
+    }
+
+    private List<Task> resolve(int[] scheduled) {
+        List<Task> tasks = snapshot.getTasks();
+        List<Task> result = new ArrayList<>(scheduled.length);
+        for (int task : scheduled) {
+            result.add(tasks.get(task));
+        }
+        return result;
+    }
+
+    private OccurrenceTable copyFor(TaskSnapshot next) {
+        return new OccurrenceTable(next, start, tasksByDay.clone(), departmentsByDay.clone());
+    }
+
+    // Only called on a private copy before it is published
+
+    private void insert(int index, ScheduleRule rule, Task task) {
+        String department = TaskSnapshot.departmentKey(task.getDepartment());
+        LocalDate end = getEnd();
+        for (LocalDate date = rule.nextOccurrence(start); date != null && !date.isAfter(end);
+             date = rule.nextOccurrence(date.plusDays(1))) {
+            int day = dayOf(date);
+            tasksByDay[day] = insertSorted(tasksByDay[day], index);
+            Map<String, int[]> departments = new HashMap<>(departmentsByDay[day]);
+            departments.put(department, insertSorted(departments.getOrDefault(department, NONE), index));
+            departmentsByDay[day] = departments;
+        }
+    }
+
+    private void remove(int index, ScheduleRule rule, Task task, boolean shiftFollowing) {
+        String department = TaskSnapshot.departmentKey(task.getDepartment());
+        LocalDate end = getEnd();
+        for (LocalDate date = rule.nextOccurrence(start); date != null && !date.isAfter(end);
+             date = rule.nextOccurrence(date.plusDays(1))) {
+            int day = dayOf(date);
+            tasksByDay[day] = without(tasksByDay[day], index);
+            Map<String, int[]> departments = new HashMap<>(departmentsByDay[day]);
+            int[] remaining = without(departments.getOrDefault(department, NONE), index);
+            if (remaining.length == 0) {
+                departments.remove(department);
+            } else {
+                departments.put(department, remaining);
+            }
+            departmentsByDay[day] = departments;
+        }
+        if (!shiftFollowing) {
+            return;
+        }
+        // Indexes are positions in the sheet, so everything after a deleted row moves up
+        for (int day = 0; day < tasksByDay.length; day++) {
+            int[] scheduled = tasksByDay[day];
+            if (scheduled.length == 0 || scheduled[scheduled.length - 1] < index) {
+                continue;
+            }
+            tasksByDay[day] = shiftedAfter(scheduled, index);
+            Map<String, int[]> departments = new HashMap<>(departmentsByDay[day]);
+            departments.replaceAll((key, tasks) -> shiftedAfter(tasks, index));
+            departmentsByDay[day] = departments;
+        }
+    }
+
+    private static int[] insertSorted(int[] tasks, int index) {
+        int position = Arrays.binarySearch(tasks, index);
+        if (position >= 0) {
+            return tasks;
+        }
+        position = -position - 1;
+        int[] result = new int[tasks.length + 1];
+        System.arraycopy(tasks, 0, result, 0, position);
+        result[position] = index;
+        System.arraycopy(tasks, position, result, position + 1, tasks.length - position);
+        return result;
+    }
+
+    private static int[] without(int[] tasks, int index) {
+        int position = Arrays.binarySearch(tasks, index);
+        if (position < 0) {
+            return tasks;
+        }
+        int[] result = new int[tasks.length - 1];
+        System.arraycopy(tasks, 0, result, 0, position);
+        System.arraycopy(tasks, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    private static int[] shiftedAfter(int[] tasks, int index) {
+        int[] result = tasks.clone();
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] > index) {
+                result[i]--;
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, int[]> bucket(List<Task> tasks, int[] scheduled) {
+        if (scheduled.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<Integer>> grouped = new HashMap<>();
+        for (int task : scheduled) {
+            grouped.computeIfAbsent(TaskSnapshot.departmentKey(tasks.get(task).getDepartment()), key -> new ArrayList<>())
+                    .add(task);
+        }
+        Map<String, int[]> departments = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((department, list) ->
+                departments.put(department, list.stream().mapToInt(Integer::intValue).toArray()));
+        return departments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, int[]>[] newDepartmentArray(int days) {
+        return (Map<String, int[]>[]) new Map<?, ?>[days];
+    }
+}
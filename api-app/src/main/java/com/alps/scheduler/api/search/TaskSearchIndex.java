@@ -0,0 +1,251 @@
+package com.alps.scheduler.api.search;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the activity, department and comments of one task snapshot.
+ * Terms are lower-cased runs of letters and digits; each term maps to the positions of
+ * the tasks containing it, weighted by the field it was found in.
+ * Instances are immutable; the with/without methods return patched copies.
+ */
+public final class TaskSearchIndex {
+
+    static final int ACTIVITY_WEIGHT = 3;
+    static final int DEPARTMENT_WEIGHT = 2;
+    static final int COMMENTS_WEIGHT = 1;
+    static final int EXACT_MATCH_FACTOR = 2; // a whole-word hit ranks above a prefix hit
+
+    private final TaskSnapshot snapshot;
+    private final NavigableMap<String, Postings> postings;
+
+    private TaskSearchIndex(TaskSnapshot snapshot, NavigableMap<String, Postings> postings) {
+        this.snapshot = snapshot;
+        this.postings = postings;
+    }
+
+    public static TaskSearchIndex build(TaskSnapshot snapshot) {
+        Map<String, List<int[]>> collected = new HashMap<>();
+        List<Task> tasks = snapshot.getTasks();
+        for (int task = 0; task < tasks.size(); task++) {
+            int position = task;
+            termsOf(tasks.get(task)).forEach((term, weight) ->
+                    collected.computeIfAbsent(term, key -> new ArrayList<>()).add(new int[]{position, weight}));
+        }
+
+        // Tasks were visited in sheet order, so every posting list is already sorted
+        NavigableMap<String, Postings> postings = new TreeMap<>();
+        collected.forEach((term, entries) -> {
+            int[] positions = new int[entries.size()];
+            int[] weights = new int[entries.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = entries.get(i)[0];
+                weights[i] = entries.get(i)[1];
+            }
+            postings.put(term, new Postings(positions, weights));
+        });
+        return new TaskSearchIndex(snapshot, postings);
+    }
+
+    /**
+     * Patch in a task appended at {@code index} of the next snapshot
+     */
+    public TaskSearchIndex withTaskAdded(TaskSnapshot next, int index) {
+        NavigableMap<String, Postings> patched = new TreeMap<>(postings);
+        add(patched, index, next.getTasks().get(index));
+        return new TaskSearchIndex(next, patched);
+    }
+
+    /**
+     * Patch in a task whose row changed in place
+     */
+    public TaskSearchIndex withTaskReplaced(TaskSnapshot next, int index) {
+        NavigableMap<String, Postings> patched = new TreeMap<>(postings);
+        remove(patched, index, snapshot.getTasks().get(index));
+        add(patched, index, next.getTasks().get(index));
+        return new TaskSearchIndex(next, patched);
+    }
+
+    /**
+     * Patch out a deleted task; every task below it moves up one position
+     */
+    public TaskSearchIndex withTaskRemoved(TaskSnapshot next, int index) {
+        NavigableMap<String, Postings> patched = new TreeMap<>(postings);
+        remove(patched, index, snapshot.getTasks().get(index));
+        patched.replaceAll((term, list) -> list.shiftedAfter(index));
+        return new TaskSearchIndex(next, patched);
+    }
+
+    public TaskSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Tasks matching every word of the query, best match first.
+     * Each query word matches the terms it is a prefix of; a task scores the field weight
+     * of its best matching term per word (doubled for a whole-word match), summed over words.
+     * Ties keep sheet order.
+     */
+    public List<Task> search(String query, int limit) {
+        Map<Integer, Integer> scores = null;
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            Map<Integer, Integer> wordScores = new HashMap<>();
+            for (Map.Entry<String, Postings> entry
+                    : postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                int factor = entry.getKey().equals(word) ? EXACT_MATCH_FACTOR : 1;
+                Postings list = entry.getValue();
+                for (int i = 0; i < list.positions.length; i++) {
+                    wordScores.merge(list.positions[i], list.weights[i] * factor, Math::max);
+                }
+            }
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((task, score) -> score + wordScores.get(task));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        List<Task> tasks = snapshot.getTasks();
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> tasks.get(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Split text into lower-cased runs of letters and digits
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> termsOf(Task task) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, task.getActivity(), ACTIVITY_WEIGHT);
+        addField(weights, task.getDepartment(), DEPARTMENT_WEIGHT);
+        addField(weights, task.getComments(), COMMENTS_WEIGHT);
+        return weights;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(text));
+        for (String term : terms) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static void add(NavigableMap<String, Postings> postings, int index, Task task) {
+        termsOf(task).forEach((term, weight) ->
+                postings.put(term, postings.getOrDefault(term, Postings.EMPTY).with(index, weight)));
+    }
+
+    private static void remove(NavigableMap<String, Postings> postings, int index, Task task) {
+        for (String term : termsOf(task).keySet()) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            Postings remaining = list.without(index);
+            if (remaining.positions.length == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, remaining);
+            }
+        }
+    }
+
+    /**
+     * Task positions containing a term, ascending, with the weight of each
+     */
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings(new int[0], new int[0]);
+
+        final int[] positions;
+        final int[] weights;
+
+        Postings(int[] positions, int[] weights) {
+            this.positions = positions;
+            this.weights = weights;
+        }
+
+        Postings with(int position, int weight) {
+            int at = Arrays.binarySearch(positions, position);
+            if (at >= 0) {
+                int[] updated = weights.clone();
+                updated[at] = weight;
+                return new Postings(positions, updated);
+            }
+            at = -at - 1;
+            int[] newPositions = new int[positions.length + 1];
+            int[] newWeights = new int[weights.length + 1];
+            System.arraycopy(positions, 0, newPositions, 0, at);
+            System.arraycopy(weights, 0, newWeights, 0, at);
+            newPositions[at] = position;
+            newWeights[at] = weight;
+            System.arraycopy(positions, at, newPositions, at + 1, positions.length - at);
+            System.arraycopy(weights, at, newWeights, at + 1, weights.length - at);
+            return new Postings(newPositions, newWeights);
+        }
+
+        Postings without(int position) {
+            int at = Arrays.binarySearch(positions, position);
+            if (at < 0) {
+                return this;
+            }
+            int[] newPositions = new int[positions.length - 1];
+            int[] newWeights = new int[weights.length - 1];
+            System.arraycopy(positions, 0, newPositions, 0, at);
+            System.arraycopy(weights, 0, newWeights, 0, at);
+            System.arraycopy(positions, at + 1, newPositions, at, newPositions.length - at);
+            System.arraycopy(weights, at + 1, newWeights, at, newWeights.length - at);
+            return new Postings(newPositions, newWeights);
+        }
+
+        Postings shiftedAfter(int position) {
+            if (positions.length == 0 || positions[positions.length - 1] < position) {
+                return this;
+            }
+            int[] shifted = positions.clone();
+            for (int i = 0; i < shifted.length; i++) {
+                if (shifted[i] > position) {
+                    shifted[i]--;
+                }
+            }
+            return new Postings(shifted, weights);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.alps.scheduler.api.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies Google ID tokens with one shared verifier, transport and signing certificate cache.
+ * Google's certificates are cached for as long as their Cache-Control max-age allows and
+ * are re-fetched in the background shortly before they expire, so a login never waits
+ * on the certificate endpoint once the first fetch has happened.
+ */
+@Slf4j
+@Component
+public class GoogleIdTokenService {
+
+    private final GooglePublicKeysManager publicKeys;
+    private final GoogleIdTokenVerifier verifier;
+    private final long refreshAheadMillis;
+
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong verifyNanos = new AtomicLong();
+    private final AtomicLong maxVerifyNanos = new AtomicLong();
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong failedLogins = new AtomicLong();
+    private final AtomicLong loginNanos = new AtomicLong();
+    private final AtomicLong maxLoginNanos = new AtomicLong();
+    private final AtomicLong keyRefreshes = new AtomicLong();
+    private final AtomicLong keyRefreshFailures = new AtomicLong();
+    private volatile Instant lastKeyRefresh;
+
+    public GoogleIdTokenService(@Value("${google.oauth.client-id}") String clientId,
+                                @Value("${google.oauth.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+                                @Value("${google.oauth.certs-refresh-ahead-ms:600000}") long refreshAheadMillis) {
+        this.publicKeys = new GooglePublicKeysManager.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+        this.verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
+                .setAudience(Collections.singletonList(clientId))
+                .build();
+        this.refreshAheadMillis = refreshAheadMillis;
+    }
+
+    /**
+     * Fetch the certificates at startup so the first login does not pay for it
+     */
+    @PostConstruct
+    public void init() {
+        refreshKeys();
+    }
+
+    /**
+     * Verify a Google ID token: signature, issuer, audience and expiry
+     *
+     * @return the token, or null if it is not valid
+     */
+    public GoogleIdToken verify(String idToken) throws GeneralSecurityException, IOException {
+        long startedAt = System.nanoTime();
+        try {
+            GoogleIdToken token = verifier.verify(idToken);
+            if (token == null) {
+                rejected.incrementAndGet();
+            }
+            return token;
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            verifications.incrementAndGet();
+            verifyNanos.addAndGet(elapsed);
+            maxVerifyNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * Record the end-to-end latency of one login attempt
+     */
+    public void recordLogin(long startedAtNanos, boolean success) {
+        long elapsed = System.nanoTime() - startedAtNanos;
+        logins.incrementAndGet();
+        if (!success) {
+            failedLogins.incrementAndGet();
+        }
+        loginNanos.addAndGet(elapsed);
+        maxLoginNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * Re-fetch the certificates when they are about to expire
+     */
+    @Scheduled(fixedDelayString = "${google.oauth.certs-check-ms:60000}")
+    public void refreshIfExpiring() {
+        if (publicKeys.getExpirationTimeMilliseconds() - System.currentTimeMillis() < refreshAheadMillis) {
+            refreshKeys();
+        }
+    }
+
+    /**
+     * Verification and login latency counters for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long verified = verifications.get();
+        long loginCount = logins.get();
+        long expiresAt = publicKeys.getExpirationTimeMilliseconds();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("verifications", verified);
+        stats.put("rejected", rejected.get());
+        stats.put("avgVerifyMillis", verified == 0 ? 0.0 : millis(verifyNanos.get()) / verified);
+        stats.put("maxVerifyMillis", millis(maxVerifyNanos.get()));
+        stats.put("logins", loginCount);
+        stats.put("failedLogins", failedLogins.get());
+        stats.put("avgLoginMillis", loginCount == 0 ? 0.0 : millis(loginNanos.get()) / loginCount);
+        stats.put("maxLoginMillis", millis(maxLoginNanos.get()));
+        stats.put("keyRefreshes", keyRefreshes.get());
+        stats.put("keyRefreshFailures", keyRefreshFailures.get());
+        stats.put("lastKeyRefresh", lastKeyRefresh != null ? lastKeyRefresh.toString() : null);
+        stats.put("keysExpireAt", expiresAt > 0 ? Instant.ofEpochMilli(expiresAt).toString() : null);
+        return stats;
+    }
+
+    private void refreshKeys() {
+        try {
+            publicKeys.refresh();
+            keyRefreshes.incrementAndGet();
+            lastKeyRefresh = Instant.now();
+            log.info("Refreshed Google signing certificates, valid until {}",
+                    Instant.ofEpochMilli(publicKeys.getExpirationTimeMilliseconds()));
+        } catch (GeneralSecurityException | IOException e) {
+            // Logins fall back to fetching on demand; the next check retries
+            keyRefreshFailures.incrementAndGet();
+            log.warn("Failed to refresh Google signing certificates: {}", e.getMessage());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -1,5 +1,8 @@
 package com.alps.scheduler.api.security;
 
+import com.alps.scheduler.api.tenant.TenantContext;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +24,12 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // EventSource cannot set headers, so the event stream also accepts the token as a parameter
+    private static final String EVENT_STREAM_PATH = "/api/events";
+    private static final String TOKEN_PARAMETER = "access_token";
+
     private final JwtUtil jwtUtil;
+    private final TenantRegistry tenantRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,31 +40,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String email = null;
         String jwt = null;
         String role = null;
+        String tenant = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if (isEventStream(request)) {
+            jwt = request.getParameter(TOKEN_PARAMETER);
+        }
+
+        if (jwt != null) {
             try {
-                email = jwtUtil.extractEmail(jwt);
-                role = jwtUtil.extractRole(jwt);
+                // One verification (signature and expiry) yields every claim we need
+                Claims claims = jwtUtil.parseToken(jwt);
+                email = claims.getSubject();
+                role = claims.get("role", String.class);
+                tenant = claims.get("tenant", String.class);
             } catch (Exception e) {
                 log.warn("JWT token parsing failed: {}", e.getMessage());
             }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                // Create authority based on role
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
+        // Tokens issued before tenancy carry no tenant; they stay valid while there is only one
+        if (email != null && tenant == null) {
+            tenant = tenantRegistry.getDefaultId();
+        }
+        if (email != null && !tenantRegistry.contains(tenant)) {
+            log.warn("JWT for {} names unknown tenant: {}", email, tenant);
+            email = null;
+        }
+
+        if (email != null && role != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Create authority based on role
+            SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        email, null, Collections.singletonList(authority));
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    email, null, Collections.singletonList(authority));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                log.debug("Authenticated user: {} with role: {}", email, role);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            TenantContext.set(tenant);
+            log.debug("Authenticated user: {} with role: {} for tenant: {}", email, role, tenant);
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && EVENT_STREAM_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
     }
 }
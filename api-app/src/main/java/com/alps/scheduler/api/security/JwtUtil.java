@@ -1,19 +1,34 @@
 package com.alps.scheduler.api.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the API's own JWTs.
+ * The signing key and parser are built once. Verified claims are kept in a small cache
+ * keyed by a SHA-256 hash of the token (the token itself is never stored), so a client
+ * sending the same token on every request pays for the HMAC check and JSON parsing once.
+ * Cached entries are dropped once their token expires.
+ */
 @Slf4j
 @Component
 public class JwtUtil {
@@ -24,9 +39,52 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long expiration; // Default 24 hours
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private final Map<String, Claims> verified = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expiredEvictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verify a token's signature and expiry and return its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims parseToken(String token) {
+        String key = hash(token);
+        Claims claims = verified.get(key);
+        if (claims != null) {
+            if (!isExpired(claims)) {
+                hits.incrementAndGet();
+                return claims;
+            }
+            verified.remove(key);
+            expiredEvictions.incrementAndGet();
+        }
+
+        misses.incrementAndGet();
+        // Throws for expired tokens, so only live tokens are cached
+        claims = parser.parseSignedClaims(token).getPayload();
+        if (verified.size() >= maxCachedTokens) {
+            evictExpired();
+        }
+        if (verified.size() < maxCachedTokens) {
+            verified.put(key, claims);
+        }
+        return claims;
     }
 
     public String extractEmail(String token) {
@@ -37,6 +95,10 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    public String extractTenant(String token) {
+        return extractClaim(token, claims -> claims.get("tenant", String.class));
+    }
+
     public String extractStatus(String token) {
         return extractClaim(token, claims -> claims.get("status", String.class));
     }
@@ -46,26 +108,19 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
-    public String generateToken(String email, String role, String status) {
+    public String generateToken(String email, String role, String status, String tenant) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
         claims.put("status", status);
+        claims.put("tenant", tenant);
         return createToken(claims, email);
     }
 
@@ -75,7 +130,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -92,4 +147,40 @@ public class JwtUtil {
             return false;
         }
     }
+
+    /**
+     * Verified-token cache counters for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedTokens", verified.size());
+        stats.put("maxCachedTokens", maxCachedTokens);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("expiredEvictions", expiredEvictions.get());
+        return stats;
+    }
+
+    private void evictExpired() {
+        int before = verified.size();
+        verified.values().removeIf(JwtUtil::isExpired);
+        expiredEvictions.addAndGet(Math.max(0, before - verified.size()));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        return expiresAt != null && expiresAt.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,389 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.ChangeType;
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskChange;
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes task and user changes to connected clients as Server-Sent Events.
+ * A client only hears about changes of its own tenant.
+ * Every stream starts with a "snapshot" event carrying the current snapshot version;
+ * after that a "tasks" event follows each new snapshot version (with the changed tasks)
+ * and a "users" event each write to the Users sheet (with the written user).
+ * Streams are async requests, so an idle client holds a socket but no thread. Events are
+ * serialized once and put on a small queue per stream; a sender thread drains a queue
+ * while it has events, so a slow client only delays itself. A stream whose queue overflows
+ * or whose write has been blocked too long is dropped, and its client reconnects.
+ */
+@Slf4j
+@Service
+public class ChangeStreamService {
+
+    // Tells EventSource how long to wait before reconnecting after the stream ends
+    private static final long RECONNECT_MILLIS = 5000;
+    // Beyond this many changed rows (a sheet-wide edit) clients reload instead of patching
+    private static final int MAX_PATCH_ROWS = 500;
+
+    private final TaskSnapshotService taskSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int queueSize;
+    private final long writeTimeoutMillis;
+
+    private final Map<String, Set<Subscriber>> subscribersByTenant = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    // A thread per stream that is being written to, at most one per subscriber; idle threads exit
+    private final ThreadPoolExecutor sender;
+
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ChangeStreamService(TaskSnapshotService taskSnapshotService,
+                               ObjectMapper objectMapper,
+                               @Value("${scheduler.events.timeout-ms:1800000}") long timeoutMillis,
+                               @Value("${scheduler.events.max-subscribers:1000}") int maxSubscribers,
+                               @Value("${scheduler.events.queue-size:32}") int queueSize,
+                               @Value("${scheduler.events.write-timeout-ms:10000}") long writeTimeoutMillis) {
+        this.taskSnapshotService = taskSnapshotService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.queueSize = Math.max(1, queueSize);
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(0, Math.max(1, maxSubscribers), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "change-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Open a new stream, or return null if the subscriber limit is reached
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.get() >= maxSubscribers) {
+            rejected.incrementAndGet();
+            return null;
+        }
+        // Lets a reconnecting client tell whether it missed a version while it was away
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+
+        Set<Subscriber> group = subscribersOf(snapshot.getTenant());
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, group, queueSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        group.add(subscriber);
+        subscribers.incrementAndGet();
+        connects.incrementAndGet();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("version", snapshot.getVersion());
+        payload.put("fingerprint", snapshot.getFingerprint());
+        enqueue(subscriber, SseEmitter.event()
+                .name("snapshot")
+                .id(Long.toString(snapshot.getVersion()))
+                .reconnectTime(RECONNECT_MILLIS)
+                .data(toJson(payload)));
+        return emitter;
+    }
+
+    @EventListener
+    public void onSnapshotChanged(TaskSnapshotChangedEvent event) {
+        broadcast(event.getCurrent().getTenant(), "tasks", Long.toString(event.getCurrent().getVersion()),
+                () -> taskPayload(event));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        broadcast(event.getTenant(), "users", null, () -> {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("type", event.getType().name());
+            boolean deleted = event.getUser() == null;
+            payload.put("users", deleted ? List.of() : List.of(event.getUser()));
+            payload.put("deleted", deleted ? List.of(event.getRowNumber()) : List.of());
+            return payload;
+        });
+    }
+
+    /**
+     * Comment line sent to every stream so proxies keep idle connections open and
+     * streams whose client went away are noticed and dropped. Streams stuck in a
+     * write for longer than the write timeout are dropped here as well.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Set<Subscriber> group : subscribersByTenant.values()) {
+            for (Subscriber subscriber : group) {
+                long writingSince = subscriber.writingSince;
+                if (writingSince != 0 && now - writingSince > writeTimeoutMillis) {
+                    drop(subscriber, "write blocked for " + (now - writingSince) + " ms");
+                } else {
+                    enqueue(subscriber, SseEmitter.event().comment("ping"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream counters for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.get());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("connects", connects.get());
+        stats.put("rejected", rejected.get());
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("sendFailures", sendFailures.get());
+        stats.put("dropped", dropped.get());
+        stats.put("senderThreads", sender.getPoolSize());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Set<Subscriber> group : subscribersByTenant.values()) {
+            for (Subscriber subscriber : group) {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            }
+        }
+        subscribersByTenant.clear();
+    }
+
+    /**
+     * Serialize the payload once and queue it for every stream of the tenant.
+     * Never blocks: the publishing thread only fills the per-stream queues.
+     */
+    private void broadcast(String tenant, String name, String id, Supplier<Map<String, Object>> payload) {
+        eventsPublished.incrementAndGet();
+        Set<Subscriber> group = subscribersByTenant.get(tenant);
+        if (group == null || group.isEmpty()) {
+            return;
+        }
+        String data = toJson(payload.get());
+        log.debug("Queueing {} event for {} subscribers: {}", name, group.size(), data);
+        for (Subscriber subscriber : group) {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+            if (id != null) {
+                builder.id(id);
+            }
+            enqueue(subscriber, builder);
+        }
+    }
+
+    /**
+     * The changed tasks themselves, so clients patch their lists instead of refetching them.
+     * "tasks" holds the new content of created or edited rows, "deleted" the rows that are gone.
+     * A DELETED write removed a sheet row and moved the rows below it up by one; a REFRESHED
+     * event instead lists every row whose content changed, moved rows included. When too many
+     * rows changed the event only says "reload".
+     */
+    private static Map<String, Object> taskPayload(TaskSnapshotChangedEvent event) {
+        TaskSnapshot current = event.getCurrent();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        // A write that arrived together with edits made elsewhere is reported as a refresh
+        int patchIndex = event.patchIndex();
+        if (patchIndex >= 0) {
+            TaskChange change = event.getChange();
+            boolean deleted = change.getType() == ChangeType.DELETED;
+            payload.put("type", change.getType().name());
+            payload.put("version", current.getVersion());
+            payload.put("tasks", deleted ? List.of() : List.of(current.getTasks().get(patchIndex)));
+            payload.put("deleted", deleted ? List.of(change.getRowNumber()) : List.of());
+            return payload;
+        }
+
+        payload.put("type", "REFRESHED");
+        payload.put("version", current.getVersion());
+        List<Integer> rows = event.changedRows();
+        if (rows.size() > MAX_PATCH_ROWS) {
+            payload.put("reload", true);
+            return payload;
+        }
+        Map<Integer, Task> byRow = new HashMap<>();
+        for (Task task : current.getTasks()) {
+            if (task.getRowNumber() != null) {
+                byRow.put(task.getRowNumber(), task);
+            }
+        }
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (Integer row : rows) {
+            Task task = byRow.get(row);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                deleted.add(row);
+            }
+        }
+        payload.put("tasks", tasks);
+        payload.put("deleted", deleted);
+        return payload;
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber, "queue full");
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    /**
+     * Start a drain unless one is running; one drain per stream at a time keeps its events in order
+     */
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // No write can be in progress without a drain, so the emitter is free
+            subscriber.draining.set(false);
+            subscriber.closed = true;
+            remove(subscriber);
+            complete(subscriber.emitter);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event = subscriber.queue.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                // An event queued after the poll but before the flag was cleared is still ours
+                if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (subscriber.closed) {
+                subscriber.queue.clear();
+                subscriber.draining.set(false);
+                complete(subscriber.emitter);
+                return;
+            }
+            subscriber.writingSince = System.currentTimeMillis();
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; skip whatever is still queued for it
+                sendFailures.incrementAndGet();
+                subscriber.closed = true;
+                remove(subscriber);
+            } finally {
+                subscriber.writingSince = 0;
+            }
+        }
+    }
+
+    /**
+     * Stop queueing events for a stream and end it, so that its client reconnects and
+     * catches up from the snapshot event. The emitter is completed by the drain: a write
+     * blocked on a slow client holds the emitter's lock until it returns.
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        dropped.incrementAndGet();
+        remove(subscriber);
+        log.info("Dropping change stream: {}", reason);
+        // Gives the drain an event to find the stream closed on; a full queue already has one
+        subscriber.queue.offer(SseEmitter.event().comment("closing"));
+        schedule(subscriber);
+    }
+
+    private static void complete(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Completing change stream failed: {}", e.getMessage());
+        }
+    }
+
+    private Set<Subscriber> subscribersOf(String tenant) {
+        return subscribersByTenant.computeIfAbsent(tenant, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.group.remove(subscriber)) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize change event", e);
+        }
+    }
+
+    /**
+     * One open stream with its own bounded queue of events waiting to be written
+     */
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final Set<Subscriber> group;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long writingSince; // 0 unless a write is in progress
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<Subscriber> group, int queueSize) {
+            this.emitter = emitter;
+            this.group = group;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
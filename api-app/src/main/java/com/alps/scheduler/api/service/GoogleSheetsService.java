@@ -1,66 +1,34 @@
 package com.alps.scheduler.api.service;
 
 import com.alps.scheduler.api.model.Task;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
-import com.google.api.services.sheets.v4.Sheets;
-import com.google.api.services.sheets.v4.SheetsScopes;
+import com.alps.scheduler.api.tenant.Tenant;
+import com.alps.scheduler.api.tenant.TenantRegistry;
 import com.google.api.services.sheets.v4.model.*;
-import com.google.auth.http.HttpCredentialsAdapter;
-import com.google.auth.oauth2.GoogleCredentials;
-import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.security.GeneralSecurityException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GoogleSheetsService {
 
-    private static final String APPLICATION_NAME = "Alps Scheduler";
-    private static final GsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
-
-    @Value("${google.sheets.spreadsheet-id}")
-    private String spreadsheetId;
-
-    @Value("${google.sheets.credentials-path}")
-    private String credentialsPath;
-
-    @Value("${google.sheets.sheet-name:Sheet1}")
-    private String sheetName;
-
-    private Sheets sheetsService;
-
-    @PostConstruct
-    public void init() throws GeneralSecurityException, IOException {
-        GoogleCredentials credentials = GoogleCredentials
-                .fromStream(new FileInputStream(credentialsPath))
-                .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
-
-        sheetsService = new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JSON_FACTORY,
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
-
-        log.info("Google Sheets service initialized for spreadsheet: {}", spreadsheetId);
-    }
+    private final TenantRegistry tenantRegistry;
 
     /**
      * Get all tasks from the Google Sheet
      */
     public List<Task> getAllTasks() {
+        Tenant tenant = tenantRegistry.current();
         try {
-            String range = sheetName + "!A2:F"; // Skip header row
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, range)
+            String range = tenant.getSheetName() + "!A2:G"; // Skip header row
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), range)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -92,10 +60,12 @@ public class GoogleSheetsService {
      * Get a task by row number
      */
     public Optional<Task> getTaskByRowNumber(int rowNumber) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            String range = sheetName + "!A" + rowNumber + ":F" + rowNumber;
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, range)
+            String range = tenant.getSheetName() + "!A" + rowNumber + ":G" + rowNumber;
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), range)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -115,12 +85,14 @@ public class GoogleSheetsService {
      * Create a new task (append to sheet)
      */
     public Task createTask(Task task) {
+        Tenant tenant = tenantRegistry.current();
         try {
             List<Object> rowData = taskToRow(task);
             ValueRange body = new ValueRange().setValues(Collections.singletonList(rowData));
 
-            AppendValuesResponse response = sheetsService.spreadsheets().values()
-                    .append(spreadsheetId, sheetName + "!A:F", body)
+            tenant.getQuota().acquireWrite();
+            AppendValuesResponse response = tenant.getSheets().spreadsheets().values()
+                    .append(tenant.getSpreadsheetId(), tenant.getSheetName() + "!A:G", body)
                     .setValueInputOption("USER_ENTERED")
                     .setInsertDataOption("INSERT_ROWS")
                     .execute();
@@ -143,13 +115,15 @@ public class GoogleSheetsService {
      * Update an existing task by row number
      */
     public Task updateTask(int rowNumber, Task task) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            String range = sheetName + "!A" + rowNumber + ":F" + rowNumber;
+            String range = tenant.getSheetName() + "!A" + rowNumber + ":G" + rowNumber;
             List<Object> rowData = taskToRow(task);
             ValueRange body = new ValueRange().setValues(Collections.singletonList(rowData));
 
-            sheetsService.spreadsheets().values()
-                    .update(spreadsheetId, range, body)
+            tenant.getQuota().acquireWrite();
+            tenant.getSheets().spreadsheets().values()
+                    .update(tenant.getSpreadsheetId(), range, body)
                     .setValueInputOption("USER_ENTERED")
                     .execute();
 
@@ -167,22 +141,24 @@ public class GoogleSheetsService {
      * Delete a task by row number (clears the row content)
      */
     public void deleteTask(int rowNumber) {
+        Tenant tenant = tenantRegistry.current();
         try {
             // Get the sheet ID first
-            Spreadsheet spreadsheet = sheetsService.spreadsheets()
-                    .get(spreadsheetId)
+            tenant.getQuota().acquireRead();
+            Spreadsheet spreadsheet = tenant.getSheets().spreadsheets()
+                    .get(tenant.getSpreadsheetId())
                     .execute();
 
             Integer sheetId = null;
             for (Sheet sheet : spreadsheet.getSheets()) {
-                if (sheet.getProperties().getTitle().equals(sheetName)) {
+                if (sheet.getProperties().getTitle().equals(tenant.getSheetName())) {
                     sheetId = sheet.getProperties().getSheetId();
                     break;
                 }
             }
 
             if (sheetId == null) {
-                throw new RuntimeException("Sheet not found: " + sheetName);
+                throw new RuntimeException("Sheet not found: " + tenant.getSheetName());
             }
 
             // Delete the row
@@ -197,8 +173,9 @@ public class GoogleSheetsService {
                     .setRequests(Collections.singletonList(
                             new Request().setDeleteDimension(deleteRequest)));
 
-            sheetsService.spreadsheets()
-                    .batchUpdate(spreadsheetId, batchRequest)
+            tenant.getQuota().acquireWrite();
+            tenant.getSheets().spreadsheets()
+                    .batchUpdate(tenant.getSpreadsheetId(), batchRequest)
                     .execute();
 
             log.info("Deleted task at row {}", rowNumber);
@@ -209,15 +186,6 @@ public class GoogleSheetsService {
         }
     }
 
-    /**
-     * Get tasks by department
-     */
-    public List<Task> getTasksByDepartment(String department) {
-        return getAllTasks().stream()
-                .filter(task -> task.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
-    }
-
     /**
      * Get all departments from Named Range "Departments"
      */
@@ -236,9 +204,11 @@ public class GoogleSheetsService {
      * Get values from a Named Range in the spreadsheet
      */
     private List<String> getValuesFromNamedRange(String namedRange) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, namedRange)
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), namedRange)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -298,6 +268,7 @@ public class GoogleSheetsService {
                     .noOfTimes(getIntValue(row, 3))
                     .specificDates(getStringValue(row, 4))
                     .comments(getStringValue(row, 5))
+                    .recurrenceRule(getStringValue(row, 6))
                     .build();
         } catch (Exception e) {
             log.warn("Error mapping row {} to Task: {}", rowNumber, e.getMessage());
@@ -315,7 +286,8 @@ public class GoogleSheetsService {
                 task.getFrequency() != null ? task.getFrequency() : "",
                 task.getNoOfTimes() != null ? task.getNoOfTimes() : "",
                 task.getSpecificDates() != null ? task.getSpecificDates() : "",
-                task.getComments() != null ? task.getComments() : ""
+                task.getComments() != null ? task.getComments() : "",
+                task.getRecurrenceRule() != null ? task.getRecurrenceRule() : ""
         );
     }
 
@@ -339,7 +311,7 @@ public class GoogleSheetsService {
     }
 
     private int extractRowNumber(String range) {
-        // Range format: "Sheet1!A5:F5" - extract 5
+        // Range format: "Sheet1!A5:G5" - extract 5
         String[] parts = range.split("!");
         if (parts.length > 1) {
             String cellRange = parts[1];
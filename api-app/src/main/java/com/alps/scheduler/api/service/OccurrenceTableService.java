@@ -0,0 +1,143 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.schedule.OccurrenceTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an {@link OccurrenceTable} per tenant for a rolling window around today (by default
+ * 30 days back to 400 days ahead) in step with that tenant's task snapshot.
+ * A write made through the API only re-evaluates the written task; any other change
+ * to the sheet rebuilds the table. The window moves forward at midnight.
+ */
+@Slf4j
+@Service
+public class OccurrenceTableService {
+
+    private final ZoneId zone;
+    private final int pastDays;
+    private final int futureDays;
+
+    private final Map<String, OccurrenceTable> tables = new ConcurrentHashMap<>();
+
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+    private final AtomicLong rolls = new AtomicLong();
+    private volatile long lastBuildMillis;
+
+    public OccurrenceTableService(@Value("${scheduler.table.zone:Asia/Kolkata}") String zone,
+                                  @Value("${scheduler.table.past-days:30}") int pastDays,
+                                  @Value("${scheduler.table.future-days:400}") int futureDays) {
+        this.zone = ZoneId.of(zone);
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+    }
+
+    /**
+     * The table for a snapshot, or null if the table is not (yet) built from that version
+     */
+    public OccurrenceTable getTable(TaskSnapshot snapshot) {
+        OccurrenceTable current = tables.get(snapshot.getTenant());
+        return current != null && current.getSnapshot().getVersion() == snapshot.getVersion() ? current : null;
+    }
+
+    @EventListener
+    public synchronized void onSnapshotChanged(TaskSnapshotChangedEvent event) {
+        String tenant = event.getCurrent().getTenant();
+        try {
+            OccurrenceTable patched = patch(tables.get(tenant), event);
+            if (patched != null) {
+                patches.incrementAndGet();
+                tables.put(tenant, patched);
+                log.debug("Patched occurrence table for {} to snapshot v{}",
+                        event.getChange(), event.getCurrent().getVersion());
+            } else {
+                rebuild(event.getCurrent());
+            }
+        } catch (RuntimeException e) {
+            // Readers fall back to the year indexes until the next snapshot
+            log.error("Failed to update occurrence table: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *", zone = "${scheduler.table.zone:Asia/Kolkata}")
+    public synchronized void rollForward() {
+        LocalDate start = windowStart();
+        tables.replaceAll((tenant, current) -> {
+            if (start.equals(current.getStart())) {
+                return current;
+            }
+            OccurrenceTable rolled = current.rolledTo(start);
+            rolls.incrementAndGet();
+            log.info("Rolled occurrence table of tenant {} to {} .. {}", tenant, start, rolled.getEnd());
+            return rolled;
+        });
+    }
+
+    /**
+     * Table counters for monitoring; the window shown is the given tenant's
+     */
+    public Map<String, Object> getStats(String tenant) {
+        OccurrenceTable current = tables.get(tenant);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("built", current != null);
+        if (current != null) {
+            stats.put("snapshotVersion", current.getSnapshot().getVersion());
+            stats.put("start", current.getStart().toString());
+            stats.put("end", current.getEnd().toString());
+        }
+        stats.put("builds", builds.get());
+        stats.put("patches", patches.get());
+        stats.put("rolls", rolls.get());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+
+    private void rebuild(TaskSnapshot snapshot) {
+        long startedAt = System.currentTimeMillis();
+        OccurrenceTable table = OccurrenceTable.build(snapshot, windowStart(), pastDays + futureDays + 1);
+        tables.put(snapshot.getTenant(), table);
+        lastBuildMillis = System.currentTimeMillis() - startedAt;
+        builds.incrementAndGet();
+        log.info("Built occurrence table {} .. {} for snapshot v{} of tenant {} in {} ms",
+                table.getStart(), table.getEnd(), snapshot.getVersion(), snapshot.getTenant(), lastBuildMillis);
+    }
+
+    /**
+     * Apply a single-row write to the table, or return null if the table is not built from
+     * the previous snapshot or the new snapshot is not exactly the previous one plus that write
+     */
+    private OccurrenceTable patch(OccurrenceTable current, TaskSnapshotChangedEvent event) {
+        int index = event.patchIndex();
+        if (current == null || index < 0
+                || current.getSnapshot().getVersion() != event.getPrevious().getVersion()) {
+            return null;
+        }
+        TaskSnapshot next = event.getCurrent();
+        switch (event.getChange().getType()) {
+            case CREATED:
+                return current.withTaskAdded(next, index);
+            case UPDATED:
+                return current.withTaskReplaced(next, index);
+            case DELETED:
+                return current.withTaskRemoved(next, index);
+            default:
+                return null;
+        }
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now(zone).minusDays(pastDays);
+    }
+}
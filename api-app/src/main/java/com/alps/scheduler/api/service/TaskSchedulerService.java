@@ -1,14 +1,24 @@
 package com.alps.scheduler.api.service;
 
+import com.alps.scheduler.api.model.Occurrence;
 import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskChange;
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.schedule.DateRangeExpander;
+import com.alps.scheduler.api.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.api.schedule.OccurrenceTable;
+import com.alps.scheduler.api.schedule.ScheduleRule;
+import com.alps.scheduler.api.schedule.YearOccurrenceIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,26 +27,80 @@ import java.util.stream.Collectors;
 public class TaskSchedulerService {
 
     private final GoogleSheetsService googleSheetsService;
+    private final TaskSnapshotService taskSnapshotService;
+    private final OccurrenceIndexCache occurrenceIndexCache;
+    private final DateRangeExpander dateRangeExpander;
+    private final OccurrenceTableService occurrenceTableService;
+    private final TaskSearchService taskSearchService;
 
     /**
      * Get tasks for a specific date
      */
     public List<Task> getTasksForDate(LocalDate date) {
-        List<Task> allTasks = googleSheetsService.getAllTasks();
-        return allTasks.stream()
-                .filter(task -> isTaskScheduledForDate(task, date))
-                .collect(Collectors.toList());
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        OccurrenceTable table = occurrenceTableService.getTable(snapshot);
+        if (table != null && table.covers(date, date)) {
+            return table.tasksOn(date);
+        }
+        return tasksScheduledOn(snapshot, yearIndex(snapshot, date.getYear()), date);
+    }
+
+    /**
+     * Get tasks of a department for a specific date
+     */
+    public List<Task> getTasksForDateByDepartment(LocalDate date, String department) {
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        OccurrenceTable table = occurrenceTableService.getTable(snapshot);
+        if (table != null && table.covers(date, date)) {
+            return table.tasksOn(date, department);
+        }
+        // Outside the window only the department's own tasks are checked
+        YearOccurrenceIndex index = yearIndex(snapshot, date.getYear());
+        List<Task> result = new ArrayList<>();
+        for (int task : snapshot.getTaskIndexesInDepartment(department)) {
+            if (index.isScheduled(task, date.getDayOfYear())) {
+                result.add(snapshot.getTasks().get(task));
+            }
+        }
+        return result;
     }
 
     /**
      * Get tasks for a date range
      */
     public Map<LocalDate, List<Task>> getTasksForDateRange(LocalDate startDate, LocalDate endDate) {
-        Map<LocalDate, List<Task>> tasksByDate = new TreeMap<>();
+        // Load the task list once and evaluate every day of the range against it
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        Map<LocalDate, List<Task>> tasksByDate = new LinkedHashMap<>();
+        if (endDate.isBefore(startDate)) {
+            return tasksByDate;
+        }
+
+        // Inside the materialized window every day is a lookup
+        OccurrenceTable table = occurrenceTableService.getTable(snapshot);
+        if (table != null && table.covers(startDate, endDate)) {
+            return table.tasksBetween(startDate, endDate);
+        }
+
+        // Resolve the year indexes up front so that parallel chunks never build the same year twice
+        Map<Integer, YearOccurrenceIndex> indexes = new HashMap<>();
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            indexes.put(year, yearIndex(snapshot, year));
+        }
+
+        // Each chunk fills its own slots, so the result is assembled in date order without sorting
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        @SuppressWarnings("unchecked")
+        List<Task>[] tasksByDay = (List<Task>[]) new List<?>[days];
+        dateRangeExpander.forEachChunk(startDate, endDate, (chunkStart, chunkEnd) -> {
+            int offset = (int) ChronoUnit.DAYS.between(startDate, chunkStart);
+            for (LocalDate date = chunkStart; !date.isAfter(chunkEnd); date = date.plusDays(1)) {
+                tasksByDay[offset++] = tasksScheduledOn(snapshot, indexes.get(date.getYear()), date);
+            }
+        });
 
         LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            List<Task> tasksForDate = getTasksForDate(currentDate);
+        for (List<Task> tasksForDate : tasksByDay) {
             if (!tasksForDate.isEmpty()) {
                 tasksByDate.put(currentDate, tasksForDate);
             }
@@ -46,6 +110,32 @@ public class TaskSchedulerService {
         return tasksByDate;
     }
 
+    /**
+     * Visit the scheduled days of a range in date order, one day at a time, without
+     * collecting the range in memory. Days without tasks are skipped.
+     */
+    public void forEachScheduledDay(LocalDate startDate, LocalDate endDate,
+                                    BiConsumer<LocalDate, List<Task>> action) {
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        OccurrenceTable table = occurrenceTableService.getTable(snapshot);
+
+        YearOccurrenceIndex index = null;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            List<Task> tasksForDate;
+            if (table != null && table.covers(date, date)) {
+                tasksForDate = table.tasksOn(date);
+            } else {
+                if (index == null || index.getYear() != date.getYear()) {
+                    index = yearIndex(snapshot, date.getYear());
+                }
+                tasksForDate = tasksScheduledOn(snapshot, index, date);
+            }
+            if (!tasksForDate.isEmpty()) {
+                action.accept(date, tasksForDate);
+            }
+        }
+    }
+
     /**
      * Get tasks for the current week (Sunday to Saturday)
      */
@@ -94,11 +184,132 @@ public class TaskSchedulerService {
         return getTasksForDateRange(startOfYear, endOfYear);
     }
 
+    /**
+     * Get the next occurrences across all tasks, in date order
+     */
+    public List<Occurrence> getUpcomingOccurrences(LocalDate from, int limit) {
+        return upcoming(taskSnapshotService.getSnapshot(), from, limit, null);
+    }
+
+    /**
+     * Get the next occurrences of the tasks of a department, in date order
+     */
+    public List<Occurrence> getUpcomingOccurrencesByDepartment(String department, LocalDate from, int limit) {
+        return upcoming(taskSnapshotService.getSnapshot(), from, limit, department);
+    }
+
+    /**
+     * Get the next scheduled dates of a single task
+     */
+    public Optional<List<LocalDate>> getUpcomingDatesForTask(int rowNumber, LocalDate from, int limit) {
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        List<Task> tasks = snapshot.getTasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getRowNumber() == rowNumber) {
+                ScheduleRule rule = snapshot.getRules().get(i);
+                List<LocalDate> dates = new ArrayList<>(limit);
+                LocalDate next = rule.nextOccurrence(from);
+                while (next != null && dates.size() < limit) {
+                    dates.add(next);
+                    next = rule.nextOccurrence(next.plusDays(1));
+                }
+                return Optional.of(dates);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Count scheduled tasks per department and period (day, week or month) between two dates.
+     * Counts come from walking the set bits of the year indexes; no task lists are built.
+     * Weeks start on Sunday; the first and last period are clipped to the range.
+     */
+    public Map<String, Object> getWorkloadStats(LocalDate startDate, LocalDate endDate, String period) {
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+
+        // Period p covers the days from periodStarts[p] up to the next period's start
+        List<LocalDate> periodStarts = new ArrayList<>();
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int[] periodOfDay = new int[days];
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = nextPeriod(date, period)) {
+            periodStarts.add(date);
+        }
+        for (int p = 0; p < periodStarts.size(); p++) {
+            int from = (int) ChronoUnit.DAYS.between(startDate, periodStarts.get(p));
+            int to = p + 1 < periodStarts.size() ? (int) ChronoUnit.DAYS.between(startDate, periodStarts.get(p + 1)) : days;
+            Arrays.fill(periodOfDay, from, to, p);
+        }
+
+        // Departments by case-folded name, displayed as first spelled in the sheet
+        Map<String, String> departmentNames = new TreeMap<>();
+        for (Task task : snapshot.getTasks()) {
+            departmentNames.putIfAbsent(TaskSnapshot.departmentKey(task.getDepartment()), task.getDepartment());
+        }
+
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        int[] totals = new int[periodStarts.size()];
+        int[] dailyCounts = new int[days];
+        departmentNames.forEach((key, name) -> {
+            Arrays.fill(dailyCounts, 0);
+            int[] departmentTasks = snapshot.getTaskIndexesInDepartment(key);
+            for (LocalDate from = startDate; !from.isAfter(endDate); from = from.withDayOfYear(1).plusYears(1)) {
+                LocalDate to = from.getYear() == endDate.getYear() ? endDate : LocalDate.of(from.getYear(), 12, 31);
+                YearOccurrenceIndex index = yearIndex(snapshot, from.getYear());
+                int offset = (int) ChronoUnit.DAYS.between(startDate, from);
+                for (int task : departmentTasks) {
+                    index.addOccurrences(task, from.getDayOfYear(), to.getDayOfYear(), dailyCounts, offset);
+                }
+            }
+            int[] departmentCounts = new int[periodStarts.size()];
+            for (int day = 0; day < days; day++) {
+                departmentCounts[periodOfDay[day]] += dailyCounts[day];
+                totals[periodOfDay[day]] += dailyCounts[day];
+            }
+            counts.put(name, departmentCounts);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("start", startDate);
+        stats.put("end", endDate);
+        stats.put("period", period);
+        stats.put("periods", periodStarts);
+        stats.put("counts", counts);
+        stats.put("totals", totals);
+        return stats;
+    }
+
+    private static LocalDate nextPeriod(LocalDate date, String period) {
+        switch (period) {
+            case "day":
+                return date.plusDays(1);
+            case "week":
+                return date.with(TemporalAdjusters.next(DayOfWeek.SUNDAY));
+            case "month":
+                return date.with(TemporalAdjusters.firstDayOfNextMonth());
+            default:
+                throw new IllegalArgumentException("Unknown period: " + period + " (expected day, week or month)");
+        }
+    }
+
     /**
      * Get tasks by department
      */
     public List<Task> getTasksByDepartment(String department) {
-        return googleSheetsService.getTasksByDepartment(department);
+        return taskSnapshotService.getSnapshot().getTasksInDepartment(department);
+    }
+
+    /**
+     * Search tasks by activity, department and comments, best match first
+     */
+    public List<Task> searchTasks(String query, int limit) {
+        return taskSearchService.search(query, limit);
+    }
+
+    /**
+     * Get tasks by frequency
+     */
+    public List<Task> getTasksByFrequency(String frequency) {
+        return taskSnapshotService.getSnapshot().getTasksWithFrequency(frequency);
     }
 
     /**
@@ -119,21 +330,25 @@ public class TaskSchedulerService {
      * Get all tasks
      */
     public List<Task> getAllTasks() {
-        return googleSheetsService.getAllTasks();
+        return taskSnapshotService.getSnapshot().getTasks();
     }
 
     /**
      * Create a new task
      */
     public Task createTask(Task task) {
-        return googleSheetsService.createTask(task);
+        Task created = googleSheetsService.createTask(task);
+        taskSnapshotService.invalidate(TaskChange.created(created.getRowNumber()));
+        return created;
     }
 
     /**
      * Update an existing task
      */
     public Task updateTask(int rowNumber, Task task) {
-        return googleSheetsService.updateTask(rowNumber, task);
+        Task updated = googleSheetsService.updateTask(rowNumber, task);
+        taskSnapshotService.invalidate(TaskChange.updated(rowNumber));
+        return updated;
     }
 
     /**
@@ -141,158 +356,77 @@ public class TaskSchedulerService {
      */
     public void deleteTask(int rowNumber) {
         googleSheetsService.deleteTask(rowNumber);
+        taskSnapshotService.invalidate(TaskChange.deleted(rowNumber));
     }
 
     /**
      * Get task by row number
      */
     public Optional<Task> getTaskByRowNumber(int rowNumber) {
-        return googleSheetsService.getTaskByRowNumber(rowNumber);
-    }
-
-    /**
-     * Check if a task is scheduled for a specific date
-     */
-    private boolean isTaskScheduledForDate(Task task, LocalDate date) {
-        // Priority 1: Check specific dates
-        if (task.getSpecificDates() != null && !task.getSpecificDates().isEmpty()) {
-            if (matchesSpecificDate(task.getSpecificDates(), date)) {
-                return true;
-            }
-            // If specific date is set but doesn't match, don't check frequency
-            return false;
-        }
-
-        // Priority 2: Check frequency-based scheduling
-        return matchesFrequency(task, date);
+        return taskSnapshotService.getSnapshot().getTasks().stream()
+                .filter(task -> task.getRowNumber() == rowNumber)
+                .findFirst();
     }
 
     /**
-     * Match specific dates
+     * Occurrence bitmaps of a year for the snapshot, built once per tenant and snapshot version
      */
-    private boolean matchesSpecificDate(String specificDates, LocalDate date) {
-        String normalized = specificDates.trim().toLowerCase();
-
-        // Parse date formats like "October 1", "December 1"
-        DateTimeFormatter monthDayFormatter = DateTimeFormatter.ofPattern("MMMM d", Locale.ENGLISH);
-        try {
-            MonthDay specificMonthDay = MonthDay.parse(normalized, monthDayFormatter);
-            MonthDay currentMonthDay = MonthDay.from(date);
-            return specificMonthDay.equals(currentMonthDay);
-        } catch (Exception e) {
-            // Not a standard date format, might be handled in comments
-            return false;
-        }
+    private YearOccurrenceIndex yearIndex(TaskSnapshot snapshot, int year) {
+        return occurrenceIndexCache.get(snapshot.getTenant(), snapshot.getVersion(), snapshot.getRules(), year);
     }
 
     /**
-     * Match frequency-based scheduling
+     * K-way merge of the per-task occurrence sequences: the heap holds the next date of
+     * every task and only the task that was just emitted is advanced, so the cost depends
+     * on the number of tasks and the limit, not on how far ahead the occurrences are.
+     * Ties on the same date keep sheet order.
      */
-    private boolean matchesFrequency(Task task, LocalDate date) {
-        String frequency = task.getFrequency();
-        String comments = task.getComments() != null ? task.getComments().toLowerCase() : "";
-
-        if (frequency == null || frequency.isEmpty()) {
-            return false;
-        }
-
-        switch (frequency.toUpperCase()) {
-            case "DAILY":
-                return matchesDailySchedule(comments, date);
-
-            case "WEEKLY":
-                return matchesWeeklySchedule(task, comments, date);
-
-            case "MONTHLY":
-                return matchesMonthlySchedule(comments, date);
-
-            case "QUARTERLY":
-                return matchesQuarterlySchedule(date);
-
-            case "HALF-YEARLY":
-                return matchesHalfYearlySchedule(comments, date);
-
-            case "YEARLY":
-                return matchesYearlySchedule(task.getSpecificDates(), date);
-
-            default:
-                log.warn("Unknown frequency: {}", frequency);
-                return false;
-        }
-    }
-
-    private boolean matchesDailySchedule(String comments, LocalDate date) {
-        if (comments.isEmpty()) {
-            return true; // Every day
-        }
-
-        // Check for specific days like "Every Monday and Thursday"
-        if (comments.contains("monday") && comments.contains("thursday")) {
-            DayOfWeek day = date.getDayOfWeek();
-            return day == DayOfWeek.MONDAY || day == DayOfWeek.THURSDAY;
-        }
-
-        // Check for "Every Wednesday"
-        if (comments.contains("wednesday")) {
-            return date.getDayOfWeek() == DayOfWeek.WEDNESDAY;
-        }
-
-        return true; // Default to every day
-    }
-
-    private boolean matchesWeeklySchedule(Task task, String comments, LocalDate date) {
-        // Week starts on Sunday
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-
-        // Handle "Sunday and Wednesday" pattern
-        if (comments.contains("sun") && comments.contains("wed")) {
-            return dayOfWeek == DayOfWeek.SUNDAY || dayOfWeek == DayOfWeek.WEDNESDAY;
+    private List<Occurrence> upcoming(TaskSnapshot snapshot, LocalDate from, int limit, String department) {
+        List<Task> tasks = snapshot.getTasks();
+        List<ScheduleRule> rules = snapshot.getRules();
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>();
+        int[] candidates = department != null
+                ? snapshot.getTaskIndexesInDepartment(department)
+                : IntStream.range(0, tasks.size()).toArray();
+        for (int i : candidates) {
+            LocalDate next = rules.get(i).nextOccurrence(from);
+            if (next != null) {
+                heap.add(new Cursor(next, i));
+            }
         }
 
-        // Handle "every Sunday" pattern
-        if (comments.contains("sunday")) {
-            return dayOfWeek == DayOfWeek.SUNDAY;
+        List<Occurrence> result = new ArrayList<>(limit);
+        while (!heap.isEmpty() && result.size() < limit) {
+            Cursor head = heap.poll();
+            result.add(new Occurrence(head.date(), tasks.get(head.task())));
+            LocalDate next = rules.get(head.task()).nextOccurrence(head.date().plusDays(1));
+            if (next != null) {
+                heap.add(new Cursor(next, head.task()));
+            }
         }
-
-        // Default: first day of week (Sunday)
-        return dayOfWeek == DayOfWeek.SUNDAY;
+        return result;
     }
 
-    private boolean matchesMonthlySchedule(String comments, LocalDate date) {
-        // Check for "First day of every month"
-        if (comments.contains("first day")) {
-            return date.getDayOfMonth() == 1;
+    private record Cursor(LocalDate date, int task) implements Comparable<Cursor> {
+        @Override
+        public int compareTo(Cursor other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Integer.compare(task, other.task);
         }
-
-        // Default: first day of month
-        return date.getDayOfMonth() == 1;
-    }
-
-    private boolean matchesQuarterlySchedule(LocalDate date) {
-        // First day of quarters: Jan 1, Apr 1, Jul 1, Oct 1
-        int month = date.getMonthValue();
-        int day = date.getDayOfMonth();
-
-        return day == 1 && (month == 1 || month == 4 || month == 7 || month == 10);
     }
 
-    private boolean matchesHalfYearlySchedule(String comments, LocalDate date) {
-        // Check for "In January and June"
-        if (comments.contains("january") && comments.contains("june")) {
-            Month month = date.getMonth();
-            int day = date.getDayOfMonth();
-            return day == 1 && (month == Month.JANUARY || month == Month.JUNE);
+    /**
+     * Look up the tasks of a date in its year's occurrence index
+     */
+    private List<Task> tasksScheduledOn(TaskSnapshot snapshot, YearOccurrenceIndex index, LocalDate date) {
+        List<Task> tasks = snapshot.getTasks();
+        int[] scheduled = index.tasksOn(date.getDayOfYear());
+        List<Task> result = new ArrayList<>(scheduled.length);
+        for (int task : scheduled) {
+            result.add(tasks.get(task));
         }
-
-        // Default: January 1 and July 1
-        int month = date.getMonthValue();
-        int day = date.getDayOfMonth();
-        return day == 1 && (month == 1 || month == 7);
-    }
-
-    private boolean matchesYearlySchedule(String specificDates, LocalDate date) {
-        // Yearly tasks should have specific dates set
-        return matchesSpecificDate(specificDates, date);
+        return result;
     }
 
     /**
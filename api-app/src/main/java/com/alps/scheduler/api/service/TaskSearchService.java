@@ -0,0 +1,110 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.search.TaskSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a {@link TaskSearchIndex} per tenant in step with that tenant's task snapshot.
+ * A write made through the API only re-indexes the written task; any other change
+ * to the sheet rebuilds the index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSearchService {
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    private final Map<String, TaskSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+
+    /**
+     * Ranked search over activity, department and comments
+     */
+    public List<Task> search(String query, int limit) {
+        searches.incrementAndGet();
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        TaskSearchIndex current = indexes.get(snapshot.getTenant());
+        if (current == null || current.getSnapshot().getVersion() != snapshot.getVersion()) {
+            current = rebuild(snapshot);
+        }
+        return current.search(query, limit);
+    }
+
+    @EventListener
+    public synchronized void onSnapshotChanged(TaskSnapshotChangedEvent event) {
+        String tenant = event.getCurrent().getTenant();
+        try {
+            TaskSearchIndex current = indexes.get(tenant);
+            int changed = event.patchIndex();
+            if (current != null && changed >= 0
+                    && current.getSnapshot().getVersion() == event.getPrevious().getVersion()) {
+                TaskSnapshot next = event.getCurrent();
+                switch (event.getChange().getType()) {
+                    case CREATED:
+                        indexes.put(tenant, current.withTaskAdded(next, changed));
+                        break;
+                    case UPDATED:
+                        indexes.put(tenant, current.withTaskReplaced(next, changed));
+                        break;
+                    case DELETED:
+                        indexes.put(tenant, current.withTaskRemoved(next, changed));
+                        break;
+                    default:
+                        rebuild(next);
+                        return;
+                }
+                patches.incrementAndGet();
+            } else {
+                rebuild(event.getCurrent());
+            }
+        } catch (RuntimeException e) {
+            // search() rebuilds on demand when the index lags behind the snapshot
+            log.error("Failed to update task search index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Search index counters for monitoring; the index shown is the given tenant's
+     */
+    public Map<String, Object> getStats(String tenant) {
+        TaskSearchIndex current = indexes.get(tenant);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("built", current != null);
+        if (current != null) {
+            stats.put("snapshotVersion", current.getSnapshot().getVersion());
+            stats.put("terms", current.getTermCount());
+        }
+        stats.put("searches", searches.get());
+        stats.put("builds", builds.get());
+        stats.put("patches", patches.get());
+        return stats;
+    }
+
+    private synchronized TaskSearchIndex rebuild(TaskSnapshot snapshot) {
+        TaskSearchIndex current = indexes.get(snapshot.getTenant());
+        if (current != null && current.getSnapshot().getVersion() >= snapshot.getVersion()) {
+            return current;
+        }
+        current = TaskSearchIndex.build(snapshot);
+        indexes.put(snapshot.getTenant(), current);
+        builds.incrementAndGet();
+        log.info("Built task search index for snapshot v{} of tenant {} ({} terms)",
+                snapshot.getVersion(), snapshot.getTenant(), current.getTermCount());
+        return current;
+    }
+}
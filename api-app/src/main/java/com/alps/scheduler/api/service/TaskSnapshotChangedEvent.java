@@ -0,0 +1,132 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskChange;
+import com.alps.scheduler.api.model.TaskSnapshot;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Published by {@link TaskSnapshotService} whenever a new snapshot version goes live.
+ * Listeners run synchronously on the publishing thread, before readers can observe
+ * anything derived from the new version.
+ */
+@Getter
+public class TaskSnapshotChangedEvent {
+
+    private final TaskSnapshot previous; // null for the first snapshot
+    private final TaskSnapshot current;
+    private final TaskChange change;     // null unless the reload followed a single-row write through the API
+
+    public TaskSnapshotChangedEvent(TaskSnapshot previous, TaskSnapshot current, TaskChange change) {
+        this.previous = previous;
+        this.current = current;
+        this.change = change;
+    }
+
+    /**
+     * Position of the written task, when the new snapshot is exactly the previous one
+     * with the change applied: the created row appended at the end, the updated row
+     * replaced in place, or the deleted row removed and the rows below moved up.
+     * Returns -1 otherwise (no change hint, or the sheet was also edited elsewhere),
+     * in which case derived data has to be rebuilt.
+     */
+    public int patchIndex() {
+        if (previous == null || change == null) {
+            return -1;
+        }
+        List<Task> before = previous.getTasks();
+        List<Task> after = current.getTasks();
+        int index;
+        switch (change.getType()) {
+            case CREATED:
+                index = before.size();
+                return after.size() == index + 1
+                        && Objects.equals(after.get(index).getRowNumber(), change.getRowNumber())
+                        && unchanged(before, 0, after, 0, index, 0) ? index : -1;
+            case UPDATED:
+                index = indexOfRow(before, change.getRowNumber());
+                return index >= 0 && after.size() == before.size()
+                        && Objects.equals(after.get(index).getRowNumber(), change.getRowNumber())
+                        && unchanged(before, 0, after, 0, index, 0)
+                        && unchanged(before, index + 1, after, index + 1, before.size() - index - 1, 0) ? index : -1;
+            case DELETED:
+                index = indexOfRow(before, change.getRowNumber());
+                return index >= 0 && after.size() == before.size() - 1
+                        && unchanged(before, 0, after, 0, index, 0)
+                        && unchanged(before, index + 1, after, index, after.size() - index, 1) ? index : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Sheet rows whose content differs between the two snapshots, ascending: rows that
+     * were added, removed or edited. For the first snapshot every row counts as added.
+     * A row deleted from the middle of the sheet moves every row below it up, so all of
+     * those are reported.
+     */
+    public List<Integer> changedRows() {
+        Map<Integer, Task> before = new HashMap<>();
+        if (previous != null) {
+            for (Task task : previous.getTasks()) {
+                if (task.getRowNumber() != null) {
+                    before.put(task.getRowNumber(), task);
+                }
+            }
+        }
+        TreeSet<Integer> rows = new TreeSet<>();
+        for (Task task : current.getTasks()) {
+            if (task.getRowNumber() == null) {
+                continue;
+            }
+            Task old = before.remove(task.getRowNumber());
+            if (old == null || !sameContent(old, task)) {
+                rows.add(task.getRowNumber());
+            }
+        }
+        rows.addAll(before.keySet());
+        return new ArrayList<>(rows);
+    }
+
+    private static int indexOfRow(List<Task> tasks, int rowNumber) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (Objects.equals(tasks.get(i).getRowNumber(), rowNumber)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether {@code count} tasks are identical apart from rows having moved up by {@code rowShift}
+     */
+    private static boolean unchanged(List<Task> before, int from, List<Task> after, int to, int count, int rowShift) {
+        for (int i = 0; i < count; i++) {
+            Task a = before.get(from + i);
+            Task b = after.get(to + i);
+            if (a.getRowNumber() == null || b.getRowNumber() == null
+                    || a.getRowNumber() - rowShift != b.getRowNumber()
+                    || !sameContent(a, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameContent(Task a, Task b) {
+        return Objects.equals(a.getActivity(), b.getActivity())
+                && Objects.equals(a.getDepartment(), b.getDepartment())
+                && Objects.equals(a.getFrequency(), b.getFrequency())
+                && Objects.equals(a.getNoOfTimes(), b.getNoOfTimes())
+                && Objects.equals(a.getSpecificDates(), b.getSpecificDates())
+                && Objects.equals(a.getComments(), b.getComments())
+                && Objects.equals(a.getRecurrenceRule(), b.getRecurrenceRule());
+    }
+}
@@ -0,0 +1,195 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.model.TaskChange;
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.tenant.Tenant;
+import com.alps.scheduler.api.tenant.TenantContext;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory cache of the Tasks-Master sheet, one independent snapshot per tenant.
+ * Readers always get the latest published snapshot of their tenant without waiting on
+ * Google Sheets; only the very first read (before any snapshot exists) blocks on a load.
+ * Each tenant's snapshot is refreshed in the background on its own interval and after
+ * every local write; each new version is announced with a {@link TaskSnapshotChangedEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSnapshotService {
+
+    private final GoogleSheetsService googleSheetsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TenantRegistry tenantRegistry;
+
+    private final Map<String, TenantSnapshots> byTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Get the current task snapshot, loading it only if none has been published yet
+     */
+    public TaskSnapshot getSnapshot() {
+        TenantSnapshots state = state();
+        TaskSnapshot snapshot = state.current.get();
+        if (snapshot != null) {
+            state.hits.incrementAndGet();
+            return snapshot;
+        }
+
+        state.misses.incrementAndGet();
+        synchronized (state.loadLock) {
+            snapshot = state.current.get();
+            return snapshot != null ? snapshot : reload(state, null);
+        }
+    }
+
+    /**
+     * Re-read the sheet and publish a new snapshot.
+     * The version only moves forward when the sheet content actually changed.
+     */
+    public TaskSnapshot refresh() {
+        TenantSnapshots state = state();
+        synchronized (state.loadLock) {
+            return reload(state, null);
+        }
+    }
+
+    /**
+     * Drop the cached view after a local write. The caller pays for the reload so that
+     * its own change is visible immediately; concurrent readers keep the previous snapshot.
+     *
+     * @param change the row that was written, handed to listeners so they can patch in place
+     */
+    public void invalidate(TaskChange change) {
+        TenantSnapshots state = state();
+        try {
+            synchronized (state.loadLock) {
+                reload(state, change);
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the background refresh will retry
+            log.warn("Task snapshot reload after local write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh every tenant whose interval has elapsed. First refreshes are spread
+     * evenly over each tenant's interval so that tenants do not all hit Sheets at once.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.cache.tick-ms:5000}",
+            initialDelayString = "${scheduler.cache.initial-delay-ms:0}")
+    public void scheduledRefresh() {
+        long now = System.currentTimeMillis();
+        int position = 0;
+        int tenantCount = tenantRegistry.getTenants().size();
+        for (Tenant tenant : tenantRegistry.getTenants()) {
+            TenantSnapshots state = byTenant.computeIfAbsent(tenant.getId(), TenantSnapshots::new);
+            if (state.nextRefreshAt == 0) {
+                state.nextRefreshAt = now + tenant.getRefreshIntervalMs() * position / tenantCount;
+            }
+            position++;
+            if (now < state.nextRefreshAt) {
+                continue;
+            }
+            state.nextRefreshAt = now + tenant.getRefreshIntervalMs();
+            try {
+                TenantContext.run(tenant.getId(), this::refresh);
+            } catch (RuntimeException e) {
+                log.error("Background task snapshot refresh failed for tenant {}: {}", tenant.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cache counters of the current tenant for monitoring
+     */
+    public Map<String, Object> getStats() {
+        TenantSnapshots state = state();
+        TaskSnapshot snapshot = state.current.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tenant", state.tenant);
+        stats.put("loaded", snapshot != null);
+        if (snapshot != null) {
+            stats.put("version", snapshot.getVersion());
+            stats.put("fingerprint", snapshot.getFingerprint());
+            stats.put("taskCount", snapshot.getTasks().size());
+            stats.put("loadedAt", snapshot.getLoadedAt().toString());
+            stats.put("lastConfirmedAt", state.lastConfirmedAt.toString());
+            stats.put("ageMillis", Duration.between(state.lastConfirmedAt, Instant.now()).toMillis());
+        }
+        stats.put("hits", state.hits.get());
+        stats.put("misses", state.misses.get());
+        stats.put("refreshes", state.refreshes.get());
+        stats.put("refreshFailures", state.refreshFailures.get());
+        stats.put("lastRefreshError", state.lastRefreshError);
+        return stats;
+    }
+
+    private TenantSnapshots state() {
+        return byTenant.computeIfAbsent(tenantRegistry.current().getId(), TenantSnapshots::new);
+    }
+
+    private TaskSnapshot reload(TenantSnapshots state, TaskChange change) {
+        List<Task> tasks;
+        try {
+            tasks = googleSheetsService.getAllTasks();
+        } catch (RuntimeException e) {
+            state.refreshFailures.incrementAndGet();
+            state.lastRefreshError = e.getMessage();
+            throw e;
+        }
+        state.refreshes.incrementAndGet();
+        state.lastRefreshError = null;
+        state.lastConfirmedAt = Instant.now();
+
+        TaskSnapshot previous = state.current.get();
+        String fingerprint = TaskSnapshot.fingerprintOf(tasks);
+        if (previous != null && previous.getFingerprint().equals(fingerprint)) {
+            // Same content: keep the published snapshot, only its freshness changes
+            return previous;
+        }
+
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+        TaskSnapshot snapshot = new TaskSnapshot(state.tenant, version, tasks, fingerprint, state.lastConfirmedAt);
+        state.current.set(snapshot);
+        log.info("Published task snapshot v{} ({} tasks) for tenant {}", version, tasks.size(), state.tenant);
+        eventPublisher.publishEvent(new TaskSnapshotChangedEvent(previous, snapshot, change));
+        return snapshot;
+    }
+
+    /**
+     * Snapshot and counters of one tenant; loads of different tenants never wait on each other
+     */
+    private static final class TenantSnapshots {
+
+        final String tenant;
+        final AtomicReference<TaskSnapshot> current = new AtomicReference<>();
+        final Object loadLock = new Object();
+
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong refreshes = new AtomicLong();
+        final AtomicLong refreshFailures = new AtomicLong();
+        volatile String lastRefreshError;
+        volatile Instant lastConfirmedAt;
+        long nextRefreshAt; // only touched by the scheduler thread
+
+        TenantSnapshots(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.ChangeType;
+import com.alps.scheduler.api.model.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by {@link UserService} after a row of the Users sheet was written through the API.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserChangedEvent {
+
+    private final String tenant;
+    private final ChangeType type;
+    private final int rowNumber;
+    private final User user;      // null for a deleted row
+}
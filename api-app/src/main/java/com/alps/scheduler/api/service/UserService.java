@@ -1,66 +1,73 @@
 package com.alps.scheduler.api.service;
 
+import com.alps.scheduler.api.model.ChangeType;
 import com.alps.scheduler.api.model.User;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
-import com.google.api.services.sheets.v4.Sheets;
-import com.google.api.services.sheets.v4.SheetsScopes;
+import com.alps.scheduler.api.tenant.Tenant;
+import com.alps.scheduler.api.tenant.TenantContext;
+import com.alps.scheduler.api.tenant.TenantRegistry;
 import com.google.api.services.sheets.v4.model.*;
-import com.google.auth.http.HttpCredentialsAdapter;
-import com.google.auth.oauth2.GoogleCredentials;
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.security.GeneralSecurityException;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Users sheet access. Lookups by email (login, token refresh, duplicate checks) are served
+ * from a per-tenant directory keyed by lower-cased email, which is reloaded in the background,
+ * patched after every write made through the API, and never older than the configured
+ * maximum staleness: a lookup on an older directory reloads it first, so a user disabled
+ * directly in the sheet can no longer sign in or refresh a token after that time. Tokens
+ * already issued stay valid until they expire.
+ */
 @Slf4j
 @Service
 public class UserService {
 
-    private static final String APPLICATION_NAME = "Alps Scheduler";
-    private static final GsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
-
-    @Value("${google.sheets.spreadsheet-id}")
-    private String spreadsheetId;
-
-    @Value("${google.sheets.credentials-path}")
-    private String credentialsPath;
-
-    @Value("${google.sheets.users-sheet-name:Users}")
-    private String usersSheetName;
-
-    private Sheets sheetsService;
-
-    @PostConstruct
-    public void init() throws GeneralSecurityException, IOException {
-        GoogleCredentials credentials = GoogleCredentials
-                .fromStream(new FileInputStream(credentialsPath))
-                .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
-
-        sheetsService = new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JSON_FACTORY,
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
-
-        log.info("User Service initialized for spreadsheet: {}, sheet: {}", spreadsheetId, usersSheetName);
+    private final TenantRegistry tenantRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long refreshIntervalMs;
+    private final long maxStalenessMs;
+
+    private final Map<String, TenantUsers> byTenant = new ConcurrentHashMap<>();
+
+    public UserService(TenantRegistry tenantRegistry,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${scheduler.users.refresh-interval-ms:30000}") long refreshIntervalMs,
+                       @Value("${scheduler.users.max-staleness-ms:60000}") long maxStalenessMs) {
+        this.tenantRegistry = tenantRegistry;
+        this.eventPublisher = eventPublisher;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.maxStalenessMs = maxStalenessMs;
     }
 
     /**
      * Get all users from the Google Sheet
      */
     public List<User> getAllUsers() {
+        Tenant tenant = tenantRegistry.current();
+        TenantUsers directory = directory(tenant.getId());
+        synchronized (directory) {
+            List<User> users = readAllUsers(tenant);
+            // A full read is as good as a refresh
+            directory.publish(users);
+            return users;
+        }
+    }
+
+    private List<User> readAllUsers(Tenant tenant) {
         try {
-            String range = usersSheetName + "!A2:C"; // Skip header row
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, range)
+            String range = tenant.getUsersSheetName() + "!A2:C"; // Skip header row
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), range)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -92,10 +99,12 @@ public class UserService {
      * Get a user by row number
      */
     public Optional<User> getUserByRowNumber(int rowNumber) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            String range = usersSheetName + "!A" + rowNumber + ":C" + rowNumber;
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, range)
+            String range = tenant.getUsersSheetName() + "!A" + rowNumber + ":C" + rowNumber;
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), range)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -112,18 +121,83 @@ public class UserService {
     }
 
     /**
-     * Get a user by email
+     * Get a user by email (case-insensitive) from the tenant's user directory
      */
     public Optional<User> getUserByEmail(String email) {
-        return getAllUsers().stream()
-                .filter(user -> user.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        if (email == null) {
+            return Optional.empty();
+        }
+        Tenant tenant = tenantRegistry.current();
+        TenantUsers directory = directory(tenant.getId());
+        Map<String, User> users = directory.byEmail;
+        if (users == null || System.currentTimeMillis() - directory.loadedAt > maxStalenessMs) {
+            directory.misses.incrementAndGet();
+            synchronized (directory) {
+                // Another caller may have reloaded while we waited
+                if (directory.byEmail == null || System.currentTimeMillis() - directory.loadedAt > maxStalenessMs) {
+                    reload(tenant, directory);
+                }
+                users = directory.byEmail;
+            }
+        } else {
+            directory.hits.incrementAndGet();
+        }
+        User user = users.get(emailKey(email));
+        return user != null ? Optional.of(copyOf(user)) : Optional.empty();
+    }
+
+    /**
+     * Reload the user directory of every tenant that is due
+     */
+    @Scheduled(fixedDelayString = "${scheduler.users.tick-ms:5000}",
+            initialDelayString = "${scheduler.users.initial-delay-ms:0}")
+    public void scheduledRefresh() {
+        long now = System.currentTimeMillis();
+        for (Tenant tenant : tenantRegistry.getTenants()) {
+            TenantUsers directory = directory(tenant.getId());
+            if (now - directory.loadedAt < refreshIntervalMs) {
+                continue;
+            }
+            try {
+                synchronized (directory) {
+                    TenantContext.run(tenant.getId(), () -> reload(tenant, directory));
+                }
+            } catch (RuntimeException e) {
+                log.error("Background user directory refresh failed for tenant {}: {}", tenant.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * User directory counters of the current tenant for monitoring
+     */
+    public Map<String, Object> getStats() {
+        TenantUsers directory = directory(tenantRegistry.current().getId());
+        Map<String, User> users = directory.byEmail;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tenant", directory.tenant);
+        stats.put("loaded", users != null);
+        if (users != null) {
+            stats.put("userCount", users.size());
+            stats.put("loadedAt", Instant.ofEpochMilli(directory.loadedAt).toString());
+            stats.put("ageMillis", System.currentTimeMillis() - directory.loadedAt);
+        }
+        stats.put("refreshIntervalMs", refreshIntervalMs);
+        stats.put("maxStalenessMs", maxStalenessMs);
+        stats.put("hits", directory.hits.get());
+        stats.put("misses", directory.misses.get());
+        stats.put("reloads", directory.reloads.get());
+        stats.put("reloadFailures", directory.reloadFailures.get());
+        stats.put("patches", directory.patches.get());
+        stats.put("lastReloadError", directory.lastReloadError);
+        return stats;
     }
 
     /**
      * Create a new user (append to sheet)
      */
     public User createUser(User user) {
+        Tenant tenant = tenantRegistry.current();
         try {
             // Check if user already exists
             if (getUserByEmail(user.getEmail()).isPresent()) {
@@ -133,8 +207,9 @@ public class UserService {
             List<Object> rowData = userToRow(user);
             ValueRange body = new ValueRange().setValues(Collections.singletonList(rowData));
 
-            AppendValuesResponse response = sheetsService.spreadsheets().values()
-                    .append(spreadsheetId, usersSheetName + "!A:C", body)
+            tenant.getQuota().acquireWrite();
+            AppendValuesResponse response = tenant.getSheets().spreadsheets().values()
+                    .append(tenant.getSpreadsheetId(), tenant.getUsersSheetName() + "!A:C", body)
                     .setValueInputOption("USER_ENTERED")
                     .setInsertDataOption("INSERT_ROWS")
                     .execute();
@@ -145,6 +220,8 @@ public class UserService {
             user.setRowNumber(rowNumber);
 
             log.info("Created new user at row {}: {}", rowNumber, user.getEmail());
+            directory(tenant.getId()).patch(rowNumber, user, false);
+            eventPublisher.publishEvent(new UserChangedEvent(tenant.getId(), ChangeType.CREATED, rowNumber, user));
             return user;
 
         } catch (IOException e) {
@@ -157,18 +234,22 @@ public class UserService {
      * Update an existing user by row number
      */
     public User updateUser(int rowNumber, User user) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            String range = usersSheetName + "!A" + rowNumber + ":C" + rowNumber;
+            String range = tenant.getUsersSheetName() + "!A" + rowNumber + ":C" + rowNumber;
             List<Object> rowData = userToRow(user);
             ValueRange body = new ValueRange().setValues(Collections.singletonList(rowData));
 
-            sheetsService.spreadsheets().values()
-                    .update(spreadsheetId, range, body)
+            tenant.getQuota().acquireWrite();
+            tenant.getSheets().spreadsheets().values()
+                    .update(tenant.getSpreadsheetId(), range, body)
                     .setValueInputOption("USER_ENTERED")
                     .execute();
 
             user.setRowNumber(rowNumber);
             log.info("Updated user at row {}: {}", rowNumber, user.getEmail());
+            directory(tenant.getId()).patch(rowNumber, user, false);
+            eventPublisher.publishEvent(new UserChangedEvent(tenant.getId(), ChangeType.UPDATED, rowNumber, user));
             return user;
 
         } catch (IOException e) {
@@ -181,22 +262,24 @@ public class UserService {
      * Delete a user by row number
      */
     public void deleteUser(int rowNumber) {
+        Tenant tenant = tenantRegistry.current();
         try {
             // Get the sheet ID first
-            Spreadsheet spreadsheet = sheetsService.spreadsheets()
-                    .get(spreadsheetId)
+            tenant.getQuota().acquireRead();
+            Spreadsheet spreadsheet = tenant.getSheets().spreadsheets()
+                    .get(tenant.getSpreadsheetId())
                     .execute();
 
             Integer sheetId = null;
             for (Sheet sheet : spreadsheet.getSheets()) {
-                if (sheet.getProperties().getTitle().equals(usersSheetName)) {
+                if (sheet.getProperties().getTitle().equals(tenant.getUsersSheetName())) {
                     sheetId = sheet.getProperties().getSheetId();
                     break;
                 }
             }
 
             if (sheetId == null) {
-                throw new RuntimeException("Sheet not found: " + usersSheetName);
+                throw new RuntimeException("Sheet not found: " + tenant.getUsersSheetName());
             }
 
             // Delete the row
@@ -211,11 +294,14 @@ public class UserService {
                     .setRequests(Collections.singletonList(
                             new Request().setDeleteDimension(deleteRequest)));
 
-            sheetsService.spreadsheets()
-                    .batchUpdate(spreadsheetId, batchRequest)
+            tenant.getQuota().acquireWrite();
+            tenant.getSheets().spreadsheets()
+                    .batchUpdate(tenant.getSpreadsheetId(), batchRequest)
                     .execute();
 
             log.info("Deleted user at row {}", rowNumber);
+            directory(tenant.getId()).patch(rowNumber, null, true);
+            eventPublisher.publishEvent(new UserChangedEvent(tenant.getId(), ChangeType.DELETED, rowNumber, null));
 
         } catch (IOException e) {
             log.error("Error deleting user from Google Sheets", e);
@@ -259,9 +345,11 @@ public class UserService {
      * Get values from a Named Range in the spreadsheet
      */
     private List<String> getValuesFromNamedRange(String namedRange, List<String> fallbackValues) {
+        Tenant tenant = tenantRegistry.current();
         try {
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, namedRange)
+            tenant.getQuota().acquireRead();
+            ValueRange response = tenant.getSheets().spreadsheets().values()
+                    .get(tenant.getSpreadsheetId(), namedRange)
                     .execute();
 
             List<List<Object>> values = response.getValues();
@@ -289,6 +377,100 @@ public class UserService {
         }
     }
 
+    private TenantUsers directory(String tenant) {
+        return byTenant.computeIfAbsent(tenant, TenantUsers::new);
+    }
+
+    /**
+     * Read the Users sheet into the directory; the caller holds the directory's monitor
+     */
+    private void reload(Tenant tenant, TenantUsers directory) {
+        List<User> users;
+        try {
+            users = readAllUsers(tenant);
+        } catch (RuntimeException e) {
+            directory.reloadFailures.incrementAndGet();
+            directory.lastReloadError = e.getMessage();
+            throw e;
+        }
+        directory.publish(users);
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getRowNumber(), user.getEmail(), user.getStatus(), user.getRole());
+    }
+
+    /**
+     * Email-keyed users of one tenant. The map is replaced as a whole, never modified,
+     * so lookups read it without locking; reloads and patches hold the instance's monitor.
+     */
+    private static final class TenantUsers {
+
+        final String tenant;
+        volatile Map<String, User> byEmail;
+        volatile long loadedAt;
+
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong reloads = new AtomicLong();
+        final AtomicLong reloadFailures = new AtomicLong();
+        final AtomicLong patches = new AtomicLong();
+        volatile String lastReloadError;
+
+        TenantUsers(String tenant) {
+            this.tenant = tenant;
+        }
+
+        synchronized void publish(List<User> users) {
+            Map<String, User> map = new HashMap<>(users.size() * 2);
+            for (User user : users) {
+                if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+                    // First row wins, as with the sheet scan this replaces
+                    map.putIfAbsent(emailKey(user.getEmail()), copyOf(user));
+                }
+            }
+            byEmail = map;
+            loadedAt = System.currentTimeMillis();
+            reloads.incrementAndGet();
+            lastReloadError = null;
+        }
+
+        /**
+         * Apply a write made through the API. Deleting a row moves every row below it up by one.
+         * Does nothing before the first load; that load will see the write.
+         */
+        synchronized void patch(int rowNumber, User user, boolean deleted) {
+            Map<String, User> current = byEmail;
+            if (current == null) {
+                return;
+            }
+            Map<String, User> map = new HashMap<>(current.size() * 2);
+            for (Map.Entry<String, User> entry : current.entrySet()) {
+                User existing = entry.getValue();
+                int row = existing.getRowNumber() != null ? existing.getRowNumber() : 0;
+                if (row == rowNumber) {
+                    continue;
+                }
+                if (deleted && row > rowNumber) {
+                    existing = copyOf(existing);
+                    existing.setRowNumber(row - 1);
+                }
+                map.put(entry.getKey(), existing);
+            }
+            if (!deleted && user.getEmail() != null && !user.getEmail().isEmpty()) {
+                User stored = copyOf(user);
+                stored.setRowNumber(rowNumber);
+                map.putIfAbsent(emailKey(user.getEmail()), stored);
+            }
+            byEmail = map;
+            patches.incrementAndGet();
+        }
+    }
+
     /**
      * Map a row from the sheet to a User object
      */
@@ -0,0 +1,78 @@
+package com.alps.scheduler.api.tenant;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Google Sheets request budget of one tenant, counted per minute.
+ * Every tenant gets its own share, so a busy property cannot use up the
+ * quota of the shared service account for everybody else.
+ */
+public class SheetsQuota {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final String tenant;
+    private final int requestsPerMinute;
+
+    private long windowStart;
+    private int used;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public SheetsQuota(String tenant, int requestsPerMinute) {
+        this.tenant = tenant;
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    /**
+     * Count one read request, failing if the tenant has used up this minute's budget
+     */
+    public void acquireRead() {
+        acquire();
+        reads.incrementAndGet();
+    }
+
+    /**
+     * Count one write request, failing if the tenant has used up this minute's budget
+     */
+    public void acquireWrite() {
+        acquire();
+        writes.incrementAndGet();
+    }
+
+    /**
+     * Quota counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        roll(System.currentTimeMillis());
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tenant", tenant);
+        stats.put("requestsPerMinute", requestsPerMinute);
+        stats.put("usedThisMinute", used);
+        stats.put("reads", reads.get());
+        stats.put("writes", writes.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    private synchronized void acquire() {
+        roll(System.currentTimeMillis());
+        if (used >= requestsPerMinute) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Google Sheets request quota of " + requestsPerMinute
+                    + " per minute exceeded for tenant " + tenant);
+        }
+        used++;
+    }
+
+    private void roll(long now) {
+        if (now - windowStart >= WINDOW_MILLIS) {
+            windowStart = now;
+            used = 0;
+        }
+    }
+}
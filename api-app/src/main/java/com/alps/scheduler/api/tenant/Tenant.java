@@ -0,0 +1,23 @@
+package com.alps.scheduler.api.tenant;
+
+import com.google.api.services.sheets.v4.Sheets;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One property served by this instance: its spreadsheet, its own Sheets client and its request budget.
+ */
+@Getter
+@ToString(of = {"id", "spreadsheetId"})
+@RequiredArgsConstructor
+public class Tenant {
+
+    private final String id;
+    private final String spreadsheetId;
+    private final String sheetName;
+    private final String usersSheetName;
+    private final long refreshIntervalMs;
+    private final Sheets sheets;
+    private final SheetsQuota quota;
+}
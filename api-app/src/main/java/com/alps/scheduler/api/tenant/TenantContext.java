@@ -0,0 +1,57 @@
+package com.alps.scheduler.api.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant the current thread works for. Set from the JWT for the duration of a request,
+ * and around background work that runs per tenant.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * The tenant id of the current thread, or null if none was set
+     */
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run an action as the given tenant, restoring the previous tenant afterwards
+     */
+    public static void run(String tenant, Runnable action) {
+        call(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compute a value as the given tenant, restoring the previous tenant afterwards
+     */
+    public static <T> T call(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.alps.scheduler.api.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Properties (hotels) served by this instance, keyed by tenant id:
+ * <pre>
+ * scheduler.tenancy.tenants.alps-residency.spreadsheet-id=...
+ * scheduler.tenancy.tenants.alps-residency.refresh-interval-ms=300000
+ * </pre>
+ * Unset values fall back to the single-spreadsheet google.sheets.* settings.
+ * With no tenants configured, those settings make up one tenant named "default".
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "scheduler.tenancy")
+public class TenantProperties {
+
+    private Map<String, Property> tenants = new LinkedHashMap<>();
+
+    @Data
+    public static class Property {
+        private String spreadsheetId;
+        private String credentialsPath;
+        private String sheetName;
+        private String usersSheetName;
+        private Long refreshIntervalMs;
+        private Integer sheetsRequestsPerMinute;
+    }
+}
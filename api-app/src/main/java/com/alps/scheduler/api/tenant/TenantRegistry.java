@@ -0,0 +1,145 @@
+package com.alps.scheduler.api.tenant;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.SheetsScopes;
+import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.GoogleCredentials;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The tenants of this instance, each with its own Sheets client and quota.
+ * Resolves the tenant of the current thread from {@link TenantContext}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TenantRegistry {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final String APPLICATION_NAME = "Alps Scheduler";
+    private static final GsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+    private final TenantProperties tenantProperties;
+
+    @Value("${google.sheets.spreadsheet-id}")
+    private String defaultSpreadsheetId;
+
+    @Value("${google.sheets.credentials-path}")
+    private String defaultCredentialsPath;
+
+    @Value("${google.sheets.sheet-name:Sheet1}")
+    private String defaultSheetName;
+
+    @Value("${google.sheets.users-sheet-name:Users}")
+    private String defaultUsersSheetName;
+
+    @Value("${scheduler.cache.refresh-interval-ms:300000}")
+    private long defaultRefreshIntervalMs;
+
+    @Value("${scheduler.tenancy.sheets-requests-per-minute:60}")
+    private int defaultRequestsPerMinute;
+
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException, IOException {
+        Map<String, TenantProperties.Property> configured = tenantProperties.getTenants();
+        if (configured.isEmpty()) {
+            configured = Map.of(DEFAULT_TENANT, new TenantProperties.Property());
+        }
+
+        NetHttpTransport transport = GoogleNetHttpTransport.newTrustedTransport();
+        Map<String, GoogleCredentials> credentialsByPath = new HashMap<>();
+        for (Map.Entry<String, TenantProperties.Property> entry : configured.entrySet()) {
+            String id = entry.getKey();
+            TenantProperties.Property property = entry.getValue();
+            String credentialsPath = orDefault(property.getCredentialsPath(), defaultCredentialsPath);
+
+            GoogleCredentials credentials = credentialsByPath.get(credentialsPath);
+            if (credentials == null) {
+                credentials = GoogleCredentials
+                        .fromStream(new FileInputStream(credentialsPath))
+                        .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
+                credentialsByPath.put(credentialsPath, credentials);
+            }
+            Sheets sheets = new Sheets.Builder(transport, JSON_FACTORY, new HttpCredentialsAdapter(credentials))
+                    .setApplicationName(APPLICATION_NAME)
+                    .build();
+
+            int requestsPerMinute = property.getSheetsRequestsPerMinute() != null
+                    ? property.getSheetsRequestsPerMinute() : defaultRequestsPerMinute;
+            Tenant tenant = new Tenant(id,
+                    orDefault(property.getSpreadsheetId(), defaultSpreadsheetId),
+                    orDefault(property.getSheetName(), defaultSheetName),
+                    orDefault(property.getUsersSheetName(), defaultUsersSheetName),
+                    property.getRefreshIntervalMs() != null ? property.getRefreshIntervalMs() : defaultRefreshIntervalMs,
+                    sheets,
+                    new SheetsQuota(id, requestsPerMinute));
+            tenants.put(id, tenant);
+            log.info("Tenant {} uses spreadsheet {}, refresh every {} ms, {} Sheets requests per minute",
+                    id, tenant.getSpreadsheetId(), tenant.getRefreshIntervalMs(), requestsPerMinute);
+        }
+    }
+
+    public Collection<Tenant> getTenants() {
+        return Collections.unmodifiableCollection(tenants.values());
+    }
+
+    /**
+     * Whether a tenant id is served by this instance
+     */
+    public boolean contains(String id) {
+        return id != null && tenants.containsKey(id);
+    }
+
+    public Tenant get(String id) {
+        Tenant tenant = id != null ? tenants.get(id) : null;
+        if (tenant == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + id);
+        }
+        return tenant;
+    }
+
+    /**
+     * The tenant a request or token without a tenant belongs to: the only tenant when
+     * there is just one, otherwise none
+     */
+    public String getDefaultId() {
+        return tenants.size() == 1 ? tenants.keySet().iterator().next() : null;
+    }
+
+    /**
+     * The tenant of the current thread
+     */
+    public Tenant current() {
+        String id = TenantContext.get();
+        if (id == null) {
+            id = getDefaultId();
+            if (id == null) {
+                throw new IllegalStateException("No tenant selected");
+            }
+        }
+        return get(id);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+}
@@ -0,0 +1,173 @@
+package com.alps.scheduler.api.web;
+
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.service.TaskSnapshotService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional GET support for everything that is served from the task snapshot.
+ * The ETag is derived from the tenant, its snapshot fingerprint, the request URL, the Accept header
+ * and today's date (for /today, /week and other relative views), so it can be checked
+ * before the request reaches a controller: a matching If-None-Match is answered with
+ * 304 without evaluating or serializing anything.
+ * Only 200 responses get the ETag, so errors are never revalidated into a 304.
+ * Runs after Spring Security, so unauthenticated requests never get a 304.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotEtagFilter extends OncePerRequestFilter {
+
+    // Browsers and the PWA may keep the response but must revalidate it on every use
+    private static final String CACHE_CONTROL = "no-cache, private";
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong conditionalRequests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Departments and frequencies come from named ranges, not from the snapshot
+        return !(path.startsWith("/api/schedule/") || path.startsWith("/api/master/tasks"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        requests.incrementAndGet();
+        TaskSnapshot snapshot = taskSnapshotService.getSnapshot();
+        String etag = etagFor(snapshot, request);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            conditionalRequests.incrementAndGet();
+            if (matches(ifNoneMatch, etag)) {
+                notModified.incrementAndGet();
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+                return;
+            }
+        }
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        EtagResponse etagResponse = new EtagResponse(response, etag);
+        filterChain.doFilter(request, etagResponse);
+        // Nothing written (yet): an empty body, or a stream that starts on an async dispatch
+        etagResponse.applyEtag();
+    }
+
+    /**
+     * Conditional request counters for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long conditional = conditionalRequests.get();
+        long hits = notModified.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("conditionalRequests", conditional);
+        stats.put("notModified", hits);
+        stats.put("notModifiedRatio", requests.get() == 0 ? 0.0 : (double) hits / requests.get());
+        stats.put("conditionalHitRatio", conditional == 0 ? 0.0 : (double) hits / conditional);
+        return stats;
+    }
+
+    private static String etagFor(TaskSnapshot snapshot, HttpServletRequest request) {
+        // The response is a function of the snapshot and exactly these request properties
+        String key = snapshot.getTenant()
+                + '\u001f' + request.getRequestURI()
+                + '?' + request.getQueryString()
+                + '\u001f' + request.getHeader(HttpHeaders.ACCEPT)
+                + '\u001f' + LocalDate.now();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return '"' + snapshot.getFingerprint() + '-' + HexFormat.of().formatHex(digest, 0, 8) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Adds the ETag just before the response is committed, and only to a 200: an error or a
+     * redirect for the same URL must not be revalidated into a 304 later on
+     */
+    private static final class EtagResponse extends HttpServletResponseWrapper {
+
+        private final String etag;
+        private volatile boolean applied;
+
+        EtagResponse(HttpServletResponse response, String etag) {
+            super(response);
+            this.etag = etag;
+        }
+
+        void applyEtag() {
+            if (applied || isCommitted()) {
+                return;
+            }
+            applied = true;
+            if (getStatus() == HttpServletResponse.SC_OK) {
+                setHeader(HttpHeaders.ETAG, etag);
+                setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            applyEtag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            applyEtag();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            applyEtag();
+            super.flushBuffer();
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
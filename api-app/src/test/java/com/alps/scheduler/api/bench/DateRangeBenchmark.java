@@ -0,0 +1,90 @@
+package com.alps.scheduler.api.bench;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.schedule.DateRangeExpander;
+import com.alps.scheduler.api.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.api.service.GoogleSheetsService;
+import com.alps.scheduler.api.service.OccurrenceTableService;
+import com.alps.scheduler.api.service.TaskSchedulerService;
+import com.alps.scheduler.api.service.TaskSearchService;
+import com.alps.scheduler.api.service.TaskSnapshotService;
+import com.alps.scheduler.api.tenant.Tenant;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Range queries over 10k tasks through {@link TaskSchedulerService#getTasksForDateRange}, with the
+ * {@link DateRangeExpander} on one thread versus a pool. The range lies outside the materialized
+ * occurrence table, and the year indexes are warm after the first invocation, so this measures
+ * the per-day expansion that the chunks split up. Compare the two parallelism values on a
+ * multi-core machine; on a single core they only show the cost of the split.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateRangeBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Param({"10000"})
+    public int tasks;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"7", "365", "1826"})
+    public int days;
+
+    private DateRangeExpander dateRangeExpander;
+    private TaskSchedulerService taskSchedulerService;
+
+    @Setup
+    public void setUp() {
+        List<Task> taskList = SyntheticTasks.generate(tasks);
+        GoogleSheetsService googleSheetsService = mock(GoogleSheetsService.class);
+        when(googleSheetsService.getAllTasks()).thenReturn(taskList);
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.current()).thenReturn(new Tenant("bench", "sheet", "Tasks-Master", "Users", 3_600_000, null, null));
+
+        // Production defaults: ranges over a year are split into quarters
+        dateRangeExpander = new DateRangeExpander(parallelism, 366, 92);
+        TaskSnapshotService taskSnapshotService = new TaskSnapshotService(googleSheetsService,
+                mock(ApplicationEventPublisher.class), tenantRegistry);
+        taskSchedulerService = new TaskSchedulerService(googleSheetsService, taskSnapshotService,
+                new OccurrenceIndexCache(8), dateRangeExpander,
+                new OccurrenceTableService("Asia/Kolkata", 30, 400), mock(TaskSearchService.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        dateRangeExpander.shutdown();
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<Task>> tasksForRange() {
+        return taskSchedulerService.getTasksForDateRange(START, START.plusDays(days - 1));
+    }
+}
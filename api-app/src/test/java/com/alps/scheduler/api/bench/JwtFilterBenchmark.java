@@ -0,0 +1,122 @@
+package com.alps.scheduler.api.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.alps.scheduler.api.security.JwtAuthenticationFilter;
+import com.alps.scheduler.api.security.JwtUtil;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request JWT overhead: the old per-claim extraction (signing key and parser rebuilt and
+ * the token verified once for each of email, role, tenant and expiry) versus one verification
+ * through {@link JwtUtil#parseToken}, with and without the verified-claims cache, and the
+ * whole {@link JwtAuthenticationFilter} pass on a cached token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private String token;
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private JwtAuthenticationFilter filter;
+
+    @Setup
+    public void setUp() {
+        // Without Spring Boot, logback logs everything at DEBUG, including one line per authentication
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        uncached = jwtUtil(0);
+        cached = jwtUtil(10_000);
+        token = cached.generateToken("staff@example.com", "Staff", "Enabled", "default");
+
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.contains("default")).thenReturn(true);
+        filter = new JwtAuthenticationFilter(cached, tenantRegistry);
+    }
+
+    @Benchmark
+    public Object perClaimParsing() {
+        String email = legacyClaim(Claims::getSubject);
+        String role = legacyClaim(claims -> claims.get("role", String.class));
+        String tenant = legacyClaim(claims -> claims.get("tenant", String.class));
+        boolean valid = !legacyClaim(Claims::getExpiration).before(new Date());
+        return valid ? email + role + tenant : null;
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncached.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedParse() {
+        return cached.parseToken(token);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/schedule/today");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * One claim the way JwtUtil read it before the parser and claims were shared
+     */
+    private <T> T legacyClaim(Function<Claims, T> resolver) {
+        Claims claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return resolver.apply(claims);
+    }
+
+    private static JwtUtil jwtUtil(int maxCachedTokens) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "maxCachedTokens", maxCachedTokens);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
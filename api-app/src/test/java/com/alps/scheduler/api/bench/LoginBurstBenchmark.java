@@ -0,0 +1,160 @@
+package com.alps.scheduler.api.bench;
+
+import com.alps.scheduler.api.security.GoogleIdTokenService;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A burst of concurrent Google sign-ins against a local stand-in for Google's certificate
+ * endpoint (40 ms per fetch, max-age one hour): a verifier built per login, as the login
+ * endpoint used to do, versus the shared {@link GoogleIdTokenService}. The number of
+ * certificate fetches is printed when the trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoginBurstBenchmark {
+
+    private static final String CLIENT_ID = "bench.apps.googleusercontent.com";
+    private static final String KEY_ID = "bench-key";
+    private static final long FETCH_LATENCY_MILLIS = 40;
+
+    private final AtomicInteger certificateFetches = new AtomicInteger();
+
+    private Path keyStoreDir;
+    private HttpServer certServer;
+    private String certsUrl;
+    private String idToken;
+    private GoogleIdTokenService sharedService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyStoreDir = Files.createTempDirectory("login-bench");
+        Path keyStoreFile = keyStoreDir.resolve("google.p12");
+        char[] password = "changeit".toCharArray();
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", KEY_ID, "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+                "-dname", "CN=accounts.google.com", "-storetype", "PKCS12",
+                "-keystore", keyStoreFile.toString(), "-storepass", new String(password))
+                .inheritIO().start();
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed");
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new FileInputStream(keyStoreFile.toFile())) {
+            keyStore.load(in, password);
+        }
+        PrivateKey privateKey = (PrivateKey) keyStore.getKey(KEY_ID, password);
+        byte[] certsJson = certsJson(keyStore.getCertificate(KEY_ID)).getBytes(StandardCharsets.UTF_8);
+
+        certServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        certServer.setExecutor(Executors.newCachedThreadPool());
+        certServer.createContext("/oauth2/v1/certs", exchange -> {
+            certificateFetches.incrementAndGet();
+            try {
+                Thread.sleep(FETCH_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, certsJson.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(certsJson);
+            }
+        });
+        certServer.start();
+        certsUrl = "http://127.0.0.1:" + certServer.getAddress().getPort() + "/oauth2/v1/certs";
+
+        Instant now = Instant.now();
+        idToken = Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .issuer("https://accounts.google.com")
+                .audience().add(CLIENT_ID).and()
+                .subject("1234567890")
+                .claim("email", "staff@example.com")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(1, ChronoUnit.DAYS)))
+                .signWith(privateKey, Jwts.SIG.RS256)
+                .compact();
+
+        sharedService = new GoogleIdTokenService(CLIENT_ID, certsUrl, 600_000);
+        sharedService.init();
+        if (sharedService.verify(idToken) == null) {
+            throw new IllegalStateException("Stand-in token does not verify");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        certServer.stop(0);
+        try (var files = Files.list(keyStoreDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(keyStoreDir);
+        System.out.println("Certificate fetches: " + certificateFetches.get());
+    }
+
+    @Benchmark
+    public GoogleIdToken perLoginVerifier() throws Exception {
+        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(certsUrl)
+                .setAudience(Collections.singletonList(CLIENT_ID))
+                .build();
+        return verifier.verify(idToken);
+    }
+
+    @Benchmark
+    public GoogleIdToken sharedVerifier() throws Exception {
+        return sharedService.verify(idToken);
+    }
+
+    private static String certsJson(Certificate certificate) throws Exception {
+        String pem = "-----BEGIN CERTIFICATE-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(certificate.getEncoded())
+                + "\n-----END CERTIFICATE-----\n";
+        return "{\"" + KEY_ID + "\": \"" + pem.replace("\n", "\\n") + "\"}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.alps.scheduler.api.bench;
+
+import com.alps.scheduler.api.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic task masters for benchmarks, mixing every frequency and comment pattern
+ * the scheduler understands in roughly the proportions of the real sheet.
+ */
+public final class SyntheticTasks {
+
+    private static final String[] DEPARTMENTS = {
+            "MEP", "House Keeping", "Front Office", "Security", "Kitchen", "Laundry", "Garden", "Accounts"};
+
+    private static final String[][] SHAPES = {
+            {"Daily", null, null},
+            {"Daily", "Every Monday and Thursday", null},
+            {"Daily", "Every Wednesday", null},
+            {"Weekly", "Every Sunday", null},
+            {"Weekly", "Sunday and Wednesday", null},
+            {"Monthly", "First day of every month", null},
+            {"Quarterly", null, null},
+            {"Half-Yearly", "In January and June", null},
+            {"Half-Yearly", null, null},
+            {"Yearly", null, "October 1"}};
+
+    private SyntheticTasks() {
+    }
+
+    public static List<Task> generate(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] shape = SHAPES[i % SHAPES.length];
+            tasks.add(Task.builder()
+                    .rowNumber(i + 2)
+                    .activity("Task " + i)
+                    .department(DEPARTMENTS[(i / SHAPES.length) % DEPARTMENTS.length])
+                    .frequency(shape[0])
+                    .comments(shape[1])
+                    .specificDates(shape[2])
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,91 @@
+package com.alps.scheduler.api.bench;
+
+import com.alps.scheduler.api.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.api.schedule.ScheduleRule;
+import com.alps.scheduler.api.schedule.YearOccurrenceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-year projection (e.g. a 10-year capex plan): per-day rule evaluation versus one
+ * occurrence index per year versus the year-shape templates of {@link OccurrenceIndexCache}.
+ * Each invocation starts from an empty cache, so template reuse is measured within one projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YearTemplateBenchmark {
+
+    private static final int FIRST_YEAR = 2026;
+
+    @Param({"720"})
+    public int tasks;
+
+    @Param({"10", "100"})
+    public int years;
+
+    private List<ScheduleRule> rules;
+
+    @Setup
+    public void setUp() {
+        rules = SyntheticTasks.generate(tasks).stream().map(ScheduleRule::compile).toList();
+    }
+
+    @Benchmark
+    public long perDayEvaluation() {
+        long occurrences = 0;
+        LocalDate end = LocalDate.of(FIRST_YEAR + years, 1, 1);
+        for (LocalDate date = LocalDate.of(FIRST_YEAR, 1, 1); date.isBefore(end); date = date.plusDays(1)) {
+            for (ScheduleRule rule : rules) {
+                if (rule.matches(date)) {
+                    occurrences++;
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    @Benchmark
+    public long indexPerYear() {
+        long occurrences = 0;
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + years; year++) {
+            occurrences += count(YearOccurrenceIndex.build(year, rules));
+        }
+        return occurrences;
+    }
+
+    @Benchmark
+    public long yearShapeTemplates() {
+        OccurrenceIndexCache cache = new OccurrenceIndexCache(years);
+        Object snapshotKey = new Object();
+        long occurrences = 0;
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + years; year++) {
+            occurrences += count(cache.get("bench", snapshotKey, rules, year));
+        }
+        return occurrences;
+    }
+
+    private static long count(YearOccurrenceIndex index) {
+        long occurrences = 0;
+        for (int task = 0; task < index.getTaskCount(); task++) {
+            occurrences += index.occurrenceCount(task);
+        }
+        return occurrences;
+    }
+}
@@ -0,0 +1,96 @@
+package com.alps.scheduler.api.controller;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.security.JwtUtil;
+import com.alps.scheduler.api.security.SecurityConfig;
+import com.alps.scheduler.api.service.TaskSchedulerService;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import com.alps.scheduler.api.web.SnapshotEtagFilter;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON schedules are written on an async dispatch, which must pass the security chain
+ * without a second authentication.
+ */
+@WebMvcTest(controllers = ScheduleController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SnapshotEtagFilter.class))
+@Import(SecurityConfig.class)
+class ScheduleControllerStreamTest {
+
+    private static final String TOKEN = "token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TaskSchedulerService taskSchedulerService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private TenantRegistry tenantRegistry;
+
+    @BeforeEach
+    void setUp() {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("user@example.com");
+        when(claims.get("role", String.class)).thenReturn("user");
+        when(claims.get("tenant", String.class)).thenReturn("default");
+        when(jwtUtil.parseToken(TOKEN)).thenReturn(claims);
+        when(tenantRegistry.contains("default")).thenReturn(true);
+
+        doAnswer(invocation -> {
+            BiConsumer<LocalDate, List<Task>> action = invocation.getArgument(2);
+            action.accept(LocalDate.of(2026, 1, 1), List.of(Task.builder().rowNumber(2).activity("Check generator").build()));
+            return null;
+        }).when(taskSchedulerService).forEachScheduledDay(eq(LocalDate.of(2026, 1, 1)), eq(LocalDate.of(2026, 12, 31)), any());
+    }
+
+    @Test
+    void yearStreamCompletesOnAsyncDispatch() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/schedule/year/2026")
+                        .header("Authorization", "Bearer " + TOKEN)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("Check generator")));
+    }
+
+    @Test
+    void yearStreamRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/schedule/year/2026").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isForbidden());
+    }
+}
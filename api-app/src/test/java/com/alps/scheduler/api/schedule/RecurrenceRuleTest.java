@@ -0,0 +1,70 @@
+package com.alps.scheduler.api.schedule;
+
+import com.alps.scheduler.api.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void countResolvesToLastOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.parse("DTSTART:20260105 RRULE:FREQ=WEEKLY;BYDAY=MO;COUNT=3");
+
+        assertThat(rule.matches(LocalDate.of(2026, 1, 19))).isTrue();
+        assertThat(rule.nextOccurrence(LocalDate.of(2026, 1, 20))).isNull();
+    }
+
+    @Test
+    void countAtLimitIsAccepted() {
+        RecurrenceRule rule = RecurrenceRule.parse("DTSTART:20260101 RRULE:FREQ=DAILY;COUNT=10000");
+
+        assertThat(rule.matches(LocalDate.of(2026, 1, 1).plusDays(9_999))).isTrue();
+        assertThat(rule.nextOccurrence(LocalDate.of(2026, 1, 1).plusDays(10_000))).isNull();
+    }
+
+    @Test
+    void countAboveLimitIsRejected() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2000000000"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("COUNT out of range");
+    }
+
+    @Test
+    void oversizedCountFallsBackToFrequency() {
+        Task task = Task.builder()
+                .activity("Task")
+                .frequency("Monthly")
+                .recurrenceRule("FREQ=DAILY;COUNT=2000000000")
+                .build();
+
+        ScheduleRule rule = ScheduleRule.compile(task);
+
+        assertThat(rule.matches(LocalDate.of(2026, 3, 1))).isTrue();
+        assertThat(rule.matches(LocalDate.of(2026, 3, 2))).isFalse();
+    }
+
+    @Test
+    void intervalAboveLimitIsRejected() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=YEARLY;INTERVAL=2000000000"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("INTERVAL out of range");
+    }
+
+    @Test
+    void oversizedYearlyIntervalFallsBackToFrequency() {
+        Task task = Task.builder()
+                .activity("Task")
+                .frequency("Monthly")
+                .recurrenceRule("FREQ=YEARLY;INTERVAL=2000000000")
+                .build();
+
+        ScheduleRule rule = ScheduleRule.compile(task);
+
+        assertThat(rule.matches(LocalDate.of(2026, 3, 1))).isTrue();
+        assertThat(rule.matches(LocalDate.of(2026, 3, 2))).isFalse();
+    }
+}
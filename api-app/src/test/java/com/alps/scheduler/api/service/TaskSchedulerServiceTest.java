@@ -0,0 +1,123 @@
+package com.alps.scheduler.api.service;
+
+import com.alps.scheduler.api.model.Task;
+import com.alps.scheduler.api.schedule.DateRangeExpander;
+import com.alps.scheduler.api.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.api.tenant.Tenant;
+import com.alps.scheduler.api.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Range queries must read the Tasks-Master sheet once, however many days they cover.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskSchedulerServiceTest {
+
+    @Mock
+    private GoogleSheetsService googleSheetsService;
+
+    @Mock
+    private TenantRegistry tenantRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    private DateRangeExpander dateRangeExpander;
+    private TaskSchedulerService taskSchedulerService;
+
+    @BeforeEach
+    void setUp() {
+        when(tenantRegistry.current()).thenReturn(new Tenant("default", "sheet", "Tasks-Master", "Users", 300_000, null, null));
+        when(googleSheetsService.getAllTasks()).thenReturn(List.of(
+                task(2, "Check generator", "MEP", "Daily", null),
+                task(3, "Deep clean lobby", "House Keeping", "Weekly", "Monday"),
+                task(4, "Fire drill", "Security", "Monthly", null),
+                task(5, "Pest control", "House Keeping", "Quarterly", null)));
+
+        // Small threshold so that the year and cross-year ranges also run through the parallel chunks
+        dateRangeExpander = new DateRangeExpander(4, 31, 31);
+        TaskSnapshotService taskSnapshotService = new TaskSnapshotService(googleSheetsService, eventPublisher, tenantRegistry);
+        taskSchedulerService = new TaskSchedulerService(googleSheetsService, taskSnapshotService,
+                new OccurrenceIndexCache(8), dateRangeExpander,
+                new OccurrenceTableService("Asia/Kolkata", 30, 400), taskSearchService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dateRangeExpander.shutdown();
+    }
+
+    @Test
+    void monthQueryReadsSheetOnce() {
+        Map<LocalDate, List<Task>> month = taskSchedulerService.getTasksForMonth(2026, 3);
+
+        assertThat(month).hasSize(31);
+        assertThat(month.get(LocalDate.of(2026, 3, 1))).extracting(Task::getActivity)
+                .contains("Check generator", "Fire drill");
+        verify(googleSheetsService, times(1)).getAllTasks();
+    }
+
+    @Test
+    void yearQueryReadsSheetOnce() {
+        Map<LocalDate, List<Task>> year = taskSchedulerService.getTasksForYear(2026);
+
+        assertThat(year).hasSize(365);
+        assertThat(year.values().stream().filter(tasks -> tasks.stream()
+                .anyMatch(task -> task.getActivity().equals("Pest control")))).hasSize(4);
+        verify(googleSheetsService, times(1)).getAllTasks();
+    }
+
+    @Test
+    void rangeAcrossYearBoundaryReadsSheetOnce() {
+        LocalDate start = LocalDate.of(2025, 11, 15);
+        LocalDate end = LocalDate.of(2026, 2, 15);
+
+        Map<LocalDate, List<Task>> range = taskSchedulerService.getTasksForDateRange(start, end);
+
+        assertThat(range).hasSize((int) ChronoUnit.DAYS.between(start, end) + 1);
+        assertThat(range.keySet()).first().isEqualTo(start);
+        assertThat(List.copyOf(range.keySet())).isSorted();
+        assertThat(range.get(LocalDate.of(2026, 1, 1))).extracting(Task::getActivity)
+                .contains("Check generator", "Fire drill", "Pest control");
+        verify(googleSheetsService, times(1)).getAllTasks();
+    }
+
+    @Test
+    void repeatedRangeQueriesShareOneRead() {
+        taskSchedulerService.getTasksForMonth(2026, 1);
+        taskSchedulerService.getTasksForQuarter(2026, 2);
+        taskSchedulerService.getTasksForHalfYear(2026, 2);
+        taskSchedulerService.getTasksForCurrentWeek(LocalDate.of(2026, 10, 16));
+
+        verify(googleSheetsService, times(1)).getAllTasks();
+    }
+
+    private static Task task(int row, String activity, String department, String frequency, String comments) {
+        return Task.builder()
+                .rowNumber(row)
+                .activity(activity)
+                .department(department)
+                .frequency(frequency)
+                .comments(comments)
+                .build();
+    }
+}
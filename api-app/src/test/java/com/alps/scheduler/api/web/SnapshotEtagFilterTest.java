@@ -0,0 +1,91 @@
+package com.alps.scheduler.api.web;
+
+import com.alps.scheduler.api.model.TaskSnapshot;
+import com.alps.scheduler.api.service.TaskSnapshotService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnapshotEtagFilterTest {
+
+    private SnapshotEtagFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TaskSnapshotService taskSnapshotService = mock(TaskSnapshotService.class);
+        when(taskSnapshotService.getSnapshot()).thenReturn(new TaskSnapshot("default", 1, List.of(), "abc", Instant.now()));
+        filter = new SnapshotEtagFilter(taskSnapshotService);
+    }
+
+    @Test
+    void okResponseGetsEtag() throws Exception {
+        MockHttpServletResponse response = run(request(), (req, res) -> res.getWriter().write("[]"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"abc-");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+    }
+
+    @Test
+    void emptyOkResponseGetsEtag() throws Exception {
+        MockHttpServletResponse response = run(request(), (req, res) -> { });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+    }
+
+    @Test
+    void errorResponseGetsNoEtag() throws Exception {
+        MockHttpServletResponse response = run(request(),
+                (req, res) -> ((HttpServletResponse) res).sendError(HttpServletResponse.SC_NOT_FOUND));
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    @Test
+    void errorWithBodyGetsNoEtag() throws Exception {
+        MockHttpServletResponse response = run(request(), (req, res) -> {
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            res.getWriter().write("{\"error\":\"bad date\"}");
+        });
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        String etag = run(request(), (req, res) -> res.getWriter().write("[]")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = run(conditional, (req, res) -> {
+            throw new AssertionError("controller must not run");
+        });
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/schedule/month/2026/3");
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -1,14 +1,24 @@
 package com.alps.scheduler.batch.controller;
 
-import com.alps.scheduler.batch.service.EmailService;
+import com.alps.scheduler.batch.job.BatchJobRunner;
+import com.alps.scheduler.batch.job.JobExecution;
+import com.alps.scheduler.batch.job.JobHistory;
+import com.alps.scheduler.batch.mail.DigestFanOutService;
+import com.alps.scheduler.batch.mail.MailOutbox;
+import com.alps.scheduler.batch.scheduler.DailyScheduler;
+import com.alps.scheduler.batch.service.DigestFragmentCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -18,7 +28,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class BatchController {
 
-    private final EmailService emailService;
+    private final BatchJobRunner jobRunner;
+    private final JobHistory jobHistory;
+    private final DigestFragmentCache digestFragmentCache;
+    private final DigestFanOutService digestFanOutService;
+    private final MailOutbox mailOutbox;
+
+    @Value("${scheduler.email.to:reservations@alpsresidencymadurai.in}")
+    private String toEmail;
 
     /**
      * Trigger email sending manually
@@ -28,31 +45,12 @@ public class BatchController {
     public ResponseEntity<Map<String, String>> sendEmailManually(
             @RequestParam(required = false) String scheduleTime) {
 
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+        LocalDate today = LocalDate.now(DailyScheduler.IST);
         String time = scheduleTime != null ? scheduleTime : "Manual Trigger";
 
         log.info("Manual email trigger requested for date: {} at {}", today, time);
 
-        try {
-            emailService.sendDailyScheduleEmail(today, time);
-
-            Map<String, String> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Email sent successfully");
-            response.put("date", today.toString());
-            response.put("scheduleTime", time);
-            response.put("recipient", "internal@alpsresidencymadurai.in");
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Failed to send email: {}", e.getMessage(), e);
-
-            Map<String, String> response = new HashMap<>();
-            response.put("status", "error");
-            response.put("message", "Failed to send email: " + e.getMessage());
-
-            return ResponseEntity.internalServerError().body(response);
-        }
+        return jobResponse(jobRunner.runManual(today, time));
     }
 
     /**
@@ -64,45 +62,111 @@ public class BatchController {
             @PathVariable String date,
             @RequestParam(required = false) String scheduleTime) {
 
+        LocalDate targetDate;
         try {
-            LocalDate targetDate = LocalDate.parse(date);
-            String time = scheduleTime != null ? scheduleTime : "Manual Trigger";
-
-            log.info("Manual email trigger requested for specific date: {} at {}", targetDate, time);
-
-            emailService.sendDailyScheduleEmail(targetDate, time);
-
-            Map<String, String> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Email sent successfully");
-            response.put("date", targetDate.toString());
-            response.put("scheduleTime", time);
-            response.put("recipient", "internal@alpsresidencymadurai.in");
-
-            return ResponseEntity.ok(response);
+            targetDate = LocalDate.parse(date);
         } catch (Exception e) {
-            log.error("Failed to send email: {}", e.getMessage(), e);
-
             Map<String, String> response = new HashMap<>();
             response.put("status", "error");
-            response.put("message", "Failed to send email: " + e.getMessage());
+            response.put("message", "Invalid date: " + e.getMessage());
 
-            return ResponseEntity.internalServerError().body(response);
+            return ResponseEntity.badRequest().body(response);
         }
+        String time = scheduleTime != null ? scheduleTime : "Manual Trigger";
+
+        log.info("Manual email trigger requested for specific date: {} at {}", targetDate, time);
+
+        return jobResponse(jobRunner.runManual(targetDate, time));
     }
 
     /**
-     * Get batch job status and next scheduled run
+     * Get batch job status: next and last run of each scheduled slot, running jobs and the last job
      * GET /api/batch/status
      */
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getBatchStatus() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of(DailyScheduler.CRON_ZONE));
+        Map<String, Object> slots = new LinkedHashMap<>();
+        DailyScheduler.slots().forEach((scheduleTime, cron) -> {
+            Map<String, Object> slot = new LinkedHashMap<>();
+            slot.put("nextRun", cron.next(now).toInstant().toString());
+            slot.put("lastRun", jobHistory.lastScheduled(scheduleTime).orElse(null));
+            slots.put(scheduleTime, slot);
+        });
+        List<JobExecution> running = jobHistory.recent(Integer.MAX_VALUE).stream()
+                .filter(job -> job.getOutcome() == JobExecution.Outcome.RUNNING)
+                .toList();
+
         Map<String, Object> response = new HashMap<>();
         response.put("status", "running");
-        response.put("scheduledTimes", new String[]{"7:00 AM IST", "7:00 PM IST"});
+        response.put("scheduledTimes", slots.keySet());
         response.put("timezone", "Asia/Kolkata (IST)");
-        response.put("recipient", "internal@alpsresidencymadurai.in");
-        response.put("currentDate", LocalDate.now(ZoneId.of("Asia/Kolkata")).toString());
+        response.put("recipient", toEmail);
+        response.put("currentDate", LocalDate.now(DailyScheduler.IST).toString());
+        response.put("slots", slots);
+        response.put("runningJobs", running);
+        response.put("lastJob", jobHistory.lastFinished().orElse(null));
+        response.put("jobHistory", jobHistory.getStats());
+        response.put("fragmentCache", digestFragmentCache.getStats());
+        response.put("departmentRecipients", digestFanOutService.getRecipients().size());
+        response.put("lastFanOut", digestFanOutService.getLastResult());
+        response.put("outbox", mailOutbox.getStats());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get recent job executions, running first, then newest first
+     * GET /api/batch/jobs?limit=50
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobExecution>> getJobs(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(jobHistory.recent(Math.max(1, limit)));
+    }
+
+    /**
+     * Get one job execution
+     * GET /api/batch/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<JobExecution> getJob(@PathVariable long id) {
+        return jobHistory.find(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get mail outbox depth, age and delivery counters, and the emails still waiting
+     * GET /api/batch/outbox
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutbox() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("stats", mailOutbox.getStats());
+        response.put("pending", mailOutbox.getPending());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, String>> jobResponse(JobExecution job) {
+        Map<String, String> response = new HashMap<>();
+        response.put("jobId", String.valueOf(job.getId()));
+        response.put("date", job.getDate().toString());
+        response.put("scheduleTime", job.getScheduleTime());
+        if (!job.isSucceeded()) {
+            response.put("status", "error");
+            response.put("message", "Failed to send email: " + job.getError());
+
+            return ResponseEntity.internalServerError().body(response);
+        }
+
+        response.put("status", "queued");
+        response.put("message", "Email queued for sending");
+        response.put("recipient", toEmail);
+        response.put("emailsQueued", String.valueOf(job.getEmailsQueued()));
+        response.put("durationMillis", String.valueOf(job.getDurationMillis()));
+        response.put("snapshotVersion", String.valueOf(job.getSnapshotVersion()));
+        response.put("snapshotFingerprint", job.getSnapshotFingerprint());
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,54 @@
+package com.alps.scheduler.batch.job;
+
+import com.alps.scheduler.batch.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Runs the daily schedule email as a recorded {@link JobExecution}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchJobRunner {
+
+    private final EmailService emailService;
+    private final JobHistory jobHistory;
+
+    /**
+     * Run a scheduled or catch-up slot; its emails are queued once per date and slot
+     */
+    public JobExecution runSlot(JobExecution.Trigger trigger, LocalDate date, String scheduleTime) {
+        return run(trigger, date, scheduleTime, scheduleTime);
+    }
+
+    /**
+     * Run on request; manual runs get their own dedup slot so that triggering again sends again
+     */
+    public JobExecution runManual(LocalDate date, String scheduleTime) {
+        return run(JobExecution.Trigger.MANUAL, date, scheduleTime, "manual-" + Instant.now());
+    }
+
+    private JobExecution run(JobExecution.Trigger trigger, LocalDate date, String scheduleTime, String slot) {
+        JobExecution job = jobHistory.start(trigger, date, scheduleTime, slot);
+        try {
+            emailService.sendDailyScheduleEmail(job);
+            job.setOutcome(JobExecution.Outcome.SUCCEEDED);
+        } catch (RuntimeException e) {
+            log.error("Job {} ({} {} {}) failed: {}", job.getId(), trigger, date, scheduleTime, e.getMessage(), e);
+            job.setOutcome(JobExecution.Outcome.FAILED);
+            job.setError(e.getMessage());
+        } finally {
+            job.setFinishedAt(Instant.now());
+            jobHistory.finish(job);
+        }
+        log.info("Job {} ({} {} {}) {} in {} ms, phases {}, {} emails queued",
+                job.getId(), trigger, date, scheduleTime, job.getOutcome(), job.getDurationMillis(),
+                job.getPhaseMillis(), job.getEmailsQueued());
+        return job;
+    }
+}
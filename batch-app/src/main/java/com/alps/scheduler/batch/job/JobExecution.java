@@ -0,0 +1,114 @@
+package com.alps.scheduler.batch.job;
+
+import com.alps.scheduler.batch.model.DailyDigest;
+import com.alps.scheduler.batch.model.Task;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One run of the daily schedule email, scheduled or manual, as kept in {@link JobHistory}.
+ * Phases: fetch (sheet snapshot), compute (today's and the week's tasks), render (main email
+ * and department digests) and send (queueing in the mail outbox; delivery is tracked there).
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JobExecution {
+
+    public static final String FETCH = "fetch";
+    public static final String COMPUTE = "compute";
+    public static final String RENDER = "render";
+    public static final String SEND = "send";
+
+    public enum Trigger {
+        SCHEDULED, MANUAL, CATCH_UP
+    }
+
+    public enum Outcome {
+        RUNNING, SUCCEEDED, FAILED
+    }
+
+    private long id;
+    private Trigger trigger;
+    private LocalDate date;
+    private String scheduleTime;
+    private String slot;           // dedup slot of the emails queued by this run
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Outcome outcome = Outcome.RUNNING;
+    private String error;
+    private Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+    private int tasksToday;
+    private int departmentsToday;
+    private int tasksThisWeek;
+    private long snapshotVersion;
+    private String snapshotFingerprint;
+    private int emailsQueued;
+    private int duplicatesSkipped;
+
+    public JobExecution(long id, Trigger trigger, LocalDate date, String scheduleTime, String slot) {
+        this.id = id;
+        this.trigger = trigger;
+        this.date = date;
+        this.scheduleTime = scheduleTime;
+        this.slot = slot;
+        this.startedAt = Instant.now();
+    }
+
+    /**
+     * Run one step and add its wall time to the named phase
+     */
+    public <T> T phase(String name, Supplier<T> step) {
+        long startedAt = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            addPhase(name, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    public synchronized void addPhase(String name, long millis) {
+        phaseMillis.merge(name, millis, Long::sum);
+    }
+
+    public synchronized Map<String, Long> getPhaseMillis() {
+        return new LinkedHashMap<>(phaseMillis);
+    }
+
+    /**
+     * Record task counts and snapshot version of what this run rendered
+     */
+    public void recordDigest(DailyDigest digest) {
+        tasksToday = count(digest.getTodayTasksByDept().values());
+        departmentsToday = digest.getTodayTasksByDept().size();
+        tasksThisWeek = count(digest.getWeekTasks().values());
+        snapshotVersion = digest.getSnapshotVersion();
+        snapshotFingerprint = digest.getSnapshotFingerprint();
+    }
+
+    public Long getDurationMillis() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return startedAt == null ? null : Duration.between(startedAt, end).toMillis();
+    }
+
+    @JsonIgnore
+    public boolean isSucceeded() {
+        return outcome == Outcome.SUCCEEDED;
+    }
+
+    private static int count(Collection<List<Task>> groups) {
+        return groups.stream().mapToInt(List::size).sum();
+    }
+}
@@ -0,0 +1,219 @@
+package com.alps.scheduler.batch.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The most recent job executions, newest first, in a bounded in-memory ring buffer that
+ * serves the status endpoints. Every finished execution is also appended to a JSON-lines log,
+ * which is read back at startup so history (and missed-slot detection) survives restarts.
+ */
+@Slf4j
+@Component
+public class JobHistory {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final int capacity;
+
+    private final Deque<JobExecution> finished = new ArrayDeque<>();
+    private final Map<Long, JobExecution> running = new LinkedHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private int loadedAtStartup;
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong logWriteFailures = new AtomicLong();
+
+    public JobHistory(ObjectMapper objectMapper,
+                      @Value("${scheduler.jobs.log-path:data/job-history.jsonl}") String path,
+                      @Value("${scheduler.jobs.history-size:200}") int capacity) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Load the newest executions from the log and trim it if it has grown well past the buffer
+     */
+    @PostConstruct
+    public synchronized void load() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        int lines = 0;
+        int corrupt = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                lines++;
+                try {
+                    remember(objectMapper.readValue(text, JobExecution.class));
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-append
+                    corrupt++;
+                }
+            }
+        }
+        loadedAtStartup = finished.size();
+        finished.stream().mapToLong(JobExecution::getId).max()
+                .ifPresent(maxId -> nextId.set(maxId + 1));
+        if (corrupt > 0) {
+            log.warn("Skipped {} unreadable lines in {}", corrupt, path);
+        }
+        log.info("Loaded {} job executions from {}", loadedAtStartup, path);
+
+        if (lines > 2 * capacity) {
+            rewrite();
+        }
+    }
+
+    /**
+     * Register a new running execution
+     */
+    public synchronized JobExecution start(JobExecution.Trigger trigger, LocalDate date, String scheduleTime, String slot) {
+        JobExecution job = new JobExecution(nextId.getAndIncrement(), trigger, date, scheduleTime, slot);
+        running.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * Move a finished execution into the history and append it to the log
+     */
+    public synchronized void finish(JobExecution job) {
+        running.remove(job.getId());
+        remember(job);
+        if (job.isSucceeded()) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        try {
+            Files.writeString(path, objectMapper.writeValueAsString(job) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // History is informational; never fail a run because it could not be logged
+            logWriteFailures.incrementAndGet();
+            log.warn("Failed to write job history {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Up to {@code limit} executions, running ones first, then finished ones newest first
+     */
+    public synchronized List<JobExecution> recent(int limit) {
+        List<JobExecution> jobs = new ArrayList<>(running.values());
+        Iterator<JobExecution> newestFirst = finished.descendingIterator();
+        while (newestFirst.hasNext() && jobs.size() < limit) {
+            jobs.add(newestFirst.next());
+        }
+        return jobs.size() > limit ? jobs.subList(0, limit) : jobs;
+    }
+
+    public synchronized Optional<JobExecution> find(long id) {
+        JobExecution job = running.get(id);
+        if (job != null) {
+            return Optional.of(job);
+        }
+        return finished.stream().filter(candidate -> candidate.getId() == id).findFirst();
+    }
+
+    public synchronized Optional<JobExecution> lastFinished() {
+        return Optional.ofNullable(finished.peekLast());
+    }
+
+    /**
+     * The newest finished non-manual execution of a scheduled slot
+     */
+    public synchronized Optional<JobExecution> lastScheduled(String scheduleTime) {
+        Iterator<JobExecution> newestFirst = finished.descendingIterator();
+        while (newestFirst.hasNext()) {
+            JobExecution job = newestFirst.next();
+            if (job.getTrigger() != JobExecution.Trigger.MANUAL && scheduleTime.equals(job.getScheduleTime())) {
+                return Optional.of(job);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether a scheduled or catch-up run for this date and slot succeeded
+     */
+    public synchronized boolean hasSucceeded(LocalDate date, String scheduleTime) {
+        return finished.stream().anyMatch(job -> job.isSucceeded()
+                && job.getTrigger() != JobExecution.Trigger.MANUAL
+                && date.equals(job.getDate())
+                && scheduleTime.equals(job.getScheduleTime()));
+    }
+
+    /**
+     * Whether the log held any execution when the app started
+     */
+    public synchronized boolean hasPriorRuns() {
+        return loadedAtStartup > 0;
+    }
+
+    /**
+     * History counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.size());
+        stats.put("retained", finished.size());
+        stats.put("capacity", capacity);
+        stats.put("loadedAtStartup", loadedAtStartup);
+        stats.put("succeededSinceStart", succeeded.get());
+        stats.put("failedSinceStart", failed.get());
+        stats.put("log", path.toString());
+        stats.put("logWriteFailures", logWriteFailures.get());
+        return stats;
+    }
+
+    private void remember(JobExecution job) {
+        finished.addLast(job);
+        while (finished.size() > capacity) {
+            finished.removeFirst();
+        }
+    }
+
+    /**
+     * Replace the log with just the executions still in the buffer
+     */
+    private void rewrite() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder text = new StringBuilder();
+        for (JobExecution job : finished) {
+            text.append(objectMapper.writeValueAsString(job)).append('\n');
+        }
+        Files.writeString(temp, text, StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
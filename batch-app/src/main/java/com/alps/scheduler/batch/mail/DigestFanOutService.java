@@ -0,0 +1,142 @@
+package com.alps.scheduler.batch.mail;
+
+import com.alps.scheduler.batch.model.DailyDigest;
+import com.alps.scheduler.batch.service.DigestFragmentCache;
+import com.alps.scheduler.batch.service.DigestRenderer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends each configured recipient a digest of just their departments.
+ * Digests are rendered by a fixed pool of threads and handed to {@link MailOutbox} in one
+ * batch; {@link OutboxSender} then sends them over a few pooled SMTP connections.
+ */
+@Slf4j
+@Service
+public class DigestFanOutService {
+
+    private final MailOutbox outbox;
+    private final DigestRenderer digestRenderer;
+    private final FanOutProperties properties;
+    private final ExecutorService executor;
+
+    private volatile FanOutResult lastResult = FanOutResult.NONE;
+
+    public DigestFanOutService(MailOutbox outbox, DigestRenderer digestRenderer, FanOutProperties properties) {
+        this.outbox = outbox;
+        this.digestRenderer = digestRenderer;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "digest-fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Recipients by lower-cased email, each with the departments they receive
+     */
+    public Map<String, Set<String>> getRecipients() {
+        Map<String, Set<String>> recipients = new LinkedHashMap<>();
+        properties.getDepartments().forEach((department, emails) -> {
+            for (String email : emails) {
+                if (email != null && !email.isBlank()) {
+                    recipients.computeIfAbsent(email.trim().toLowerCase(Locale.ROOT), key -> new LinkedHashSet<>())
+                            .add(department);
+                }
+            }
+        });
+        return recipients;
+    }
+
+    /**
+     * Render every recipient their part of the digest and queue it in the outbox;
+     * returns once everything is queued, {@link OutboxSender} delivers it
+     *
+     * @param slot the run this digest belongs to; a recipient is sent each (date, slot) once
+     */
+    public FanOutResult send(DailyDigest digest, String scheduleTime, String slot, String from) {
+        Map<String, Set<String>> recipients = getRecipients();
+        if (recipients.isEmpty()) {
+            return FanOutResult.NONE;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        String subject = digestRenderer.subject(digest.getDate(), scheduleTime);
+        AtomicInteger fragments = new AtomicInteger();
+        AtomicInteger fragmentHits = new AtomicInteger();
+
+        List<Callable<OutboxMessage>> jobs = new ArrayList<>(recipients.size());
+        int skipped = 0;
+        for (Map.Entry<String, Set<String>> recipient : recipients.entrySet()) {
+            String email = recipient.getKey();
+            String dedupKey = OutboxMessage.dedupKey(digest.getDate().toString(), slot, email);
+            // A repeated run does not render what the outbox would reject anyway
+            if (outbox.contains(dedupKey)) {
+                skipped++;
+                continue;
+            }
+            jobs.add(() -> {
+                DigestFragmentCache.JobStats fragmentStats = new DigestFragmentCache.JobStats();
+                String html = digestRenderer.render(digest.forDepartments(recipient.getValue()), scheduleTime, fragmentStats);
+                fragments.addAndGet(fragmentStats.getFragments());
+                fragmentHits.addAndGet(fragmentStats.getHits());
+                return OutboxMessage.builder()
+                        .dedupKey(dedupKey)
+                        .from(from)
+                        .to(email)
+                        .subject(subject)
+                        .html(html)
+                        .build();
+            });
+        }
+
+        List<OutboxMessage> messages = new ArrayList<>(jobs.size());
+        try {
+            for (Future<OutboxMessage> future : executor.invokeAll(jobs)) {
+                messages.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Digest fan-out interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to render department digest", e.getCause());
+        }
+        long enqueueStartedAt = System.currentTimeMillis();
+        int queued = outbox.enqueue(messages);
+        long finishedAt = System.currentTimeMillis();
+
+        FanOutResult result = new FanOutResult(recipients.size(), queued, skipped + messages.size() - queued,
+                fragments.get(), fragmentHits.get(), finishedAt - startedAt, finishedAt - enqueueStartedAt);
+        lastResult = result;
+        log.info("Queued {} of {} department digests in {} ms ({} already sent or queued, {} of {} fragments from cache)",
+                result.getQueued(), result.getRecipients(), result.getElapsedMillis(), result.getDuplicates(),
+                result.getFragmentHits(), result.getFragments());
+        return result;
+    }
+
+    public FanOutResult getLastResult() {
+        return lastResult;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
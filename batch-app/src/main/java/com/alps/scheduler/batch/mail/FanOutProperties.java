@@ -0,0 +1,34 @@
+package com.alps.scheduler.batch.mail;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-department digest recipients and how fast they are sent:
+ * <pre>
+ * scheduler.email.fanout.departments.MEP=ravi@example.com,anand@example.com
+ * scheduler.email.fanout.departments.[House Keeping]=meena@example.com
+ * </pre>
+ * Someone listed under several departments gets one digest covering all of them.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "scheduler.email.fanout")
+public class FanOutProperties {
+
+    private Map<String, List<String>> departments = new LinkedHashMap<>();
+
+    /** Threads rendering digests */
+    private int concurrency = 8;
+
+    /** Open SMTP connections used by the outbox sender */
+    private int connections = 3;
+
+    /** Messages per second accepted by the SMTP server; 0 for no limit */
+    private double maxPerSecond = 10;
+}
@@ -0,0 +1,28 @@
+package com.alps.scheduler.batch.mail;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome of rendering one digest for every configured recipient and queueing it in the outbox.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class FanOutResult {
+
+    public static final FanOutResult NONE = new FanOutResult(0, 0, 0, 0, 0, 0, 0);
+
+    private final int recipients;
+    private final int queued;
+    private final int duplicates;
+    private final int fragments;
+    private final int fragmentHits;
+    private final long elapsedMillis;
+    private final long enqueueMillis;   // part of elapsedMillis spent writing to the outbox
+
+    public long getRenderMillis() {
+        return elapsedMillis - enqueueMillis;
+    }
+}
@@ -0,0 +1,425 @@
+package com.alps.scheduler.batch.mail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable queue of rendered emails, kept as an append-only JSON-lines journal.
+ * Every enqueue, delivery and failed attempt is appended and flushed to disk before it is
+ * acknowledged, so queued mail survives a crash or restart and is sent once the app is back.
+ * Delivery is at least once: a message that was being sent when the process died is sent again.
+ * A dedup key (date, slot, recipient) is only accepted once while it is pending or was sent
+ * within the retention period. The journal is compacted at startup and whenever it has grown
+ * well past the live entries.
+ */
+@Slf4j
+@Component
+public class MailOutbox {
+
+    private static final String ENQUEUED = "ENQUEUED";
+    private static final String SENT = "SENT";
+    private static final String FAILED = "FAILED";
+    private static final String DEAD = "DEAD";
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final long dedupRetentionMillis;
+
+    private final Map<String, OutboxMessage> pending = new LinkedHashMap<>(); // by id, in queue order
+    private final Set<String> pendingKeys = new HashSet<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, Long> sentKeys = new HashMap<>(); // dedup key -> sent at
+    private FileChannel journal;
+    private long journalLines;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+
+    public MailOutbox(ObjectMapper objectMapper,
+                      @Value("${scheduler.outbox.path:data/mail-outbox.jsonl}") String path,
+                      @Value("${scheduler.outbox.max-attempts:10}") int maxAttempts,
+                      @Value("${scheduler.outbox.retry-base-ms:30000}") long retryBaseMillis,
+                      @Value("${scheduler.outbox.retry-max-ms:3600000}") long retryMaxMillis,
+                      @Value("${scheduler.outbox.dedup-days:7}") int dedupDays) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.dedupRetentionMillis = Duration.ofDays(dedupDays).toMillis();
+    }
+
+    /**
+     * Replay the journal left by the previous run, then rewrite it with just the live entries
+     */
+    @PostConstruct
+    public synchronized void recover() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (Files.exists(path)) {
+            replay();
+            recovered.set(pending.size());
+            if (!pending.isEmpty()) {
+                log.info("Recovered {} unsent emails from {}", pending.size(), path);
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Queue messages for delivery; messages whose dedup key was already queued or sent are skipped
+     *
+     * @return the number of messages queued
+     */
+    public synchronized int enqueue(List<OutboxMessage> messages) {
+        long now = System.currentTimeMillis();
+        List<String> lines = new ArrayList<>();
+        List<OutboxMessage> accepted = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            String key = message.getDedupKey();
+            if (sentKeys.containsKey(key) || pendingKeys.contains(key) || !keys.add(key)) {
+                duplicates.incrementAndGet();
+                log.debug("Skipping duplicate email {}", key);
+                continue;
+            }
+            message.setId(UUID.randomUUID().toString());
+            message.setCreatedAt(now);
+            message.setNextAttemptAt(now);
+            lines.add(line(ENQUEUED, objectMapper.valueToTree(message)));
+            accepted.add(message);
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+        append(lines);
+        accepted.forEach(this::addPending);
+        enqueued.addAndGet(accepted.size());
+        notifyAll();
+        return accepted.size();
+    }
+
+    /**
+     * Whether a message with this dedup key is waiting or was sent within the retention period
+     */
+    public synchronized boolean contains(String dedupKey) {
+        return pendingKeys.contains(dedupKey) || sentKeys.containsKey(dedupKey);
+    }
+
+    /**
+     * Take up to {@code max} messages that are due, oldest first. They stay in the outbox
+     * until {@link #markSent} or {@link #markFailed}, but are not handed out again meanwhile.
+     */
+    public synchronized List<OutboxMessage> takeDue(int max) {
+        long now = System.currentTimeMillis();
+        List<OutboxMessage> due = new ArrayList<>();
+        for (OutboxMessage message : pending.values()) {
+            if (due.size() == max) {
+                break;
+            }
+            if (message.getNextAttemptAt() <= now && inFlight.add(message.getId())) {
+                due.add(message);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Block until something may be due or the timeout passes
+     */
+    public synchronized void awaitWork(long timeoutMillis) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long nextDue = pending.values().stream()
+                .filter(message -> !inFlight.contains(message.getId()))
+                .mapToLong(OutboxMessage::getNextAttemptAt)
+                .min().orElse(Long.MAX_VALUE);
+        long wait = Math.min(timeoutMillis, nextDue - now);
+        if (wait > 0) {
+            wait(wait);
+        }
+    }
+
+    /**
+     * Record a delivery. If the journal write fails the message is still released and,
+     * being pending, sent again later.
+     */
+    public synchronized void markSent(OutboxMessage message) {
+        try {
+            long now = System.currentTimeMillis();
+            ObjectNode entry = objectMapper.createObjectNode()
+                    .put("id", message.getId())
+                    .put("dedupKey", message.getDedupKey())
+                    .put("at", now);
+            append(List.of(line(SENT, entry)));
+            removePending(message.getId());
+            sentKeys.put(message.getDedupKey(), now);
+            sent.incrementAndGet();
+        } finally {
+            inFlight.remove(message.getId());
+        }
+        compactIfGrown();
+    }
+
+    /**
+     * Record a failed attempt and schedule the next one with exponential backoff,
+     * or give up after the configured number of attempts
+     */
+    public synchronized void markFailed(OutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        failedAttempts.incrementAndGet();
+        try {
+            if (attempts >= maxAttempts) {
+                append(List.of(line(DEAD, objectMapper.createObjectNode()
+                        .put("id", message.getId())
+                        .put("error", error))));
+                removePending(message.getId());
+                dead.incrementAndGet();
+                log.error("Giving up on email {} after {} attempts: {}", message.getDedupKey(), attempts, error);
+                compactIfGrown();
+                return;
+            }
+
+            long backoff = Math.min(retryMaxMillis, retryBaseMillis << Math.min(attempts - 1, 20));
+            long nextAttemptAt = System.currentTimeMillis() + backoff;
+            // Back off in memory even if the journal write below fails, so a broken disk is not retried in a loop
+            message.setAttempts(attempts);
+            message.setNextAttemptAt(nextAttemptAt);
+            message.setLastError(error);
+            append(List.of(line(FAILED, objectMapper.createObjectNode()
+                    .put("id", message.getId())
+                    .put("attempts", attempts)
+                    .put("nextAttemptAt", nextAttemptAt)
+                    .put("error", error))));
+            log.warn("Email {} failed (attempt {}), retrying in {} s: {}",
+                    message.getDedupKey(), attempts, backoff / 1000, error);
+        } finally {
+            inFlight.remove(message.getId());
+        }
+    }
+
+    /**
+     * Queue depth and age counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        long oldest = pending.values().stream().mapToLong(OutboxMessage::getCreatedAt).min().orElse(now);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("depth", pending.size());
+        stats.put("inFlight", inFlight.size());
+        stats.put("retrying", pending.values().stream().filter(message -> message.getAttempts() > 0).count());
+        stats.put("oldestAgeMillis", now - oldest);
+        stats.put("enqueued", enqueued.get());
+        stats.put("duplicatesSkipped", duplicates.get());
+        stats.put("sent", sent.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("dead", dead.get());
+        stats.put("recoveredAtStartup", recovered.get());
+        stats.put("journal", path.toString());
+        stats.put("journalLines", journalLines);
+        return stats;
+    }
+
+    /**
+     * Pending messages, oldest first, without their bodies
+     */
+    public synchronized List<Map<String, Object>> getPending() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        pending.values().stream()
+                .sorted(Comparator.comparingLong(OutboxMessage::getCreatedAt))
+                .forEach(message -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("dedupKey", message.getDedupKey());
+                    entry.put("to", message.getTo());
+                    entry.put("createdAt", Instant.ofEpochMilli(message.getCreatedAt()).toString());
+                    entry.put("attempts", message.getAttempts());
+                    entry.put("nextAttemptAt", Instant.ofEpochMilli(message.getNextAttemptAt()).toString());
+                    entry.put("lastError", message.getLastError());
+                    result.add(entry);
+                });
+        return result;
+    }
+
+    private void addPending(OutboxMessage message) {
+        pending.put(message.getId(), message);
+        pendingKeys.add(message.getDedupKey());
+    }
+
+    private void removePending(String id) {
+        OutboxMessage message = pending.remove(id);
+        if (message != null) {
+            pendingKeys.remove(message.getDedupKey());
+        }
+    }
+
+    private void replay() throws IOException {
+        int corrupt = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                JsonNode entry;
+                try {
+                    entry = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-append
+                    corrupt++;
+                    continue;
+                }
+                apply(entry);
+            }
+        }
+        if (corrupt > 0) {
+            log.warn("Skipped {} unreadable lines in {}", corrupt, path);
+        }
+    }
+
+    private void apply(JsonNode entry) throws IOException {
+        String id = entry.path("id").asText(null);
+        switch (entry.path("op").asText()) {
+            case ENQUEUED:
+                addPending(objectMapper.treeToValue(entry.get("message"), OutboxMessage.class));
+                break;
+            case SENT:
+                removePending(id);
+                sentKeys.put(entry.path("dedupKey").asText(), entry.path("at").asLong());
+                break;
+            case FAILED:
+                OutboxMessage message = pending.get(id);
+                if (message != null) {
+                    message.setAttempts(entry.path("attempts").asInt());
+                    message.setNextAttemptAt(entry.path("nextAttemptAt").asLong());
+                    message.setLastError(entry.path("error").asText(null));
+                }
+                break;
+            case DEAD:
+                removePending(id);
+                break;
+            default:
+                log.warn("Unknown outbox journal entry: {}", entry.path("op").asText());
+        }
+    }
+
+    private void compactIfGrown() {
+        // Once the queue has drained, the bodies of sent mail are all that is left to drop
+        boolean grown = pending.isEmpty()
+                ? journalLines > sentKeys.size()
+                : journalLines > 1000 && journalLines > 4L * (pending.size() + sentKeys.size());
+        if (grown) {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.warn("Outbox journal compaction failed, will retry: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rewrite the journal as the pending messages plus recent dedup keys, replacing the old file atomically
+     */
+    private void compact() throws IOException {
+        long cutoff = System.currentTimeMillis() - dedupRetentionMillis;
+        sentKeys.values().removeIf(sentAt -> sentAt < cutoff);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        for (OutboxMessage message : pending.values()) {
+            lines.add(line(ENQUEUED, objectMapper.valueToTree(message)));
+        }
+        sentKeys.forEach((key, sentAt) -> lines.add(line(SENT, objectMapper.createObjectNode()
+                .put("dedupKey", key)
+                .put("at", sentAt))));
+        // The channel follows the file through the rename, so there is no reopen that could fail
+        // after the move; if anything fails before the swap, the old journal stays in use
+        Files.deleteIfExists(temp);
+        FileChannel compacted = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        try {
+            write(compacted, lines);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            compacted.close();
+            throw e;
+        }
+
+        FileChannel previous = journal;
+        journal = compacted;
+        journalLines = lines.size();
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                log.debug("Failed to close old outbox journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String line(String op, JsonNode payload) {
+        ObjectNode entry = objectMapper.createObjectNode().put("op", op);
+        if (ENQUEUED.equals(op)) {
+            entry.put("id", payload.path("id").asText());
+            entry.set("message", payload);
+        } else {
+            entry.setAll((ObjectNode) payload);
+        }
+        return entry.toString();
+    }
+
+    private void append(List<String> lines) {
+        try {
+            write(journal, lines);
+            journalLines += lines.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write mail outbox journal " + path, e);
+        }
+    }
+
+    private static void write(FileChannel channel, List<String> lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+}
@@ -0,0 +1,32 @@
+package com.alps.scheduler.batch.mail;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * A rendered email waiting in {@link MailOutbox}, as written to the journal.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    private String id;
+    private String dedupKey;      // date|slot|recipient; a key is only queued once
+    private String from;
+    private String to;
+    private String subject;
+    private String html;
+    private long createdAt;       // epoch millis
+    private int attempts;
+    private long nextAttemptAt;   // epoch millis
+    private String lastError;
+
+    public static String dedupKey(String date, String slot, String recipient) {
+        return date + "|" + slot + "|" + recipient.trim().toLowerCase(Locale.ROOT);
+    }
+}
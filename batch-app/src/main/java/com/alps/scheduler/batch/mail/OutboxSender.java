@@ -0,0 +1,126 @@
+package com.alps.scheduler.batch.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link MailOutbox} in the background: wakes up when mail is queued or a retry is due,
+ * and sends everything that is due over a pool of SMTP connections kept open for the batch.
+ */
+@Slf4j
+@Component
+public class OutboxSender {
+
+    private final MailOutbox outbox;
+    private final JavaMailSenderImpl mailSender;
+    private final FanOutProperties properties;
+    private final long pollMillis;
+    private final int batchSize;
+
+    private final ExecutorService workers;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public OutboxSender(MailOutbox outbox, JavaMailSenderImpl mailSender, FanOutProperties properties,
+                        @Value("${scheduler.outbox.poll-ms:10000}") long pollMillis,
+                        @Value("${scheduler.outbox.batch-size:500}") int batchSize) {
+        this.outbox = outbox;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.pollMillis = pollMillis;
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        // One sending thread per connection; more would only wait for a free connection
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getConnections()), runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.drainer = new Thread(this::run, "mail-outbox-drainer");
+        this.drainer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        drainer.interrupt();
+        workers.shutdownNow();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                outbox.awaitWork(pollMillis);
+                List<OutboxMessage> due = outbox.takeDue(batchSize);
+                if (!due.isEmpty()) {
+                    send(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail outbox drain failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void send(List<OutboxMessage> due) throws InterruptedException {
+        long startedAt = System.currentTimeMillis();
+        AtomicInteger sent = new AtomicInteger();
+        // JavaMailSenderImpl leaves the protocol unset and falls back to smtp itself
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        try (SmtpTransportPool pool = new SmtpTransportPool(mailSender.getSession(), protocol,
+                mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword(),
+                Math.max(1, properties.getConnections()), properties.getMaxPerSecond())) {
+
+            List<Callable<Void>> jobs = new ArrayList<>(due.size());
+            for (OutboxMessage message : due) {
+                jobs.add(() -> {
+                    try {
+                        pool.send(toMimeMessage(message));
+                        outbox.markSent(message);
+                        sent.incrementAndGet();
+                    } catch (MessagingException | RuntimeException e) {
+                        outbox.markFailed(message, e.getMessage());
+                    }
+                    return null;
+                });
+            }
+            workers.invokeAll(jobs);
+            log.info("Sent {} of {} queued emails in {} ms over {} SMTP connections",
+                    sent.get(), due.size(), System.currentTimeMillis() - startedAt, pool.getConnects());
+        } catch (MessagingException e) {
+            // Could not even create the transports; every message is retried later
+            due.forEach(message -> outbox.markFailed(message, e.getMessage()));
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(message.getFrom());
+        helper.setTo(message.getTo());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getHtml(), true);
+        return mimeMessage;
+    }
+}
@@ -0,0 +1,131 @@
+package com.alps.scheduler.batch.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed number of SMTP connections to one server, each used by one sender at a time and
+ * kept open between messages. Sends are spaced to stay under the server's rate limit.
+ * Created for one fan-out and closed when it ends, so no connection idles between runs.
+ */
+@Slf4j
+class SmtpTransportPool implements AutoCloseable {
+
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final long minIntervalNanos;
+
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all = new ArrayList<>();
+    private final AtomicInteger connects = new AtomicInteger();
+    private long nextSendAt; // guarded by this
+
+    SmtpTransportPool(Session session, String protocol, String host, int port, String username, String password,
+                      int size, double maxPerSecond) throws MessagingException {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.minIntervalNanos = maxPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond) : 0;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Connection connection = new Connection(session.getTransport(protocol));
+            all.add(connection);
+            idle.add(connection);
+        }
+    }
+
+    /**
+     * Send over a pooled connection, reconnecting once if the server dropped it
+     */
+    void send(MimeMessage message) throws MessagingException, InterruptedException {
+        Connection connection = idle.take();
+        try {
+            awaitRateLimit();
+            try {
+                connection.send(message);
+            } catch (SendFailedException e) {
+                // The server refused the message or its recipients; another connection won't change that
+                throw e;
+            } catch (MessagingException | IllegalStateException e) {
+                log.debug("SMTP send failed ({}), retrying on a new connection", e.getMessage());
+                connection.close();
+                connection.send(message);
+            }
+        } finally {
+            idle.add(connection);
+        }
+    }
+
+    /**
+     * Connections opened so far, including reconnects
+     */
+    int getConnects() {
+        return connects.get();
+    }
+
+    @Override
+    public void close() {
+        all.forEach(Connection::close);
+    }
+
+    private void awaitRateLimit() throws InterruptedException {
+        if (minIntervalNanos == 0) {
+            return;
+        }
+        long sendAt;
+        synchronized (this) {
+            long now = System.nanoTime();
+            sendAt = Math.max(now, nextSendAt);
+            nextSendAt = sendAt + minIntervalNanos;
+        }
+        long wait = sendAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * One transport and whether we have opened it; asking the transport itself costs a NOOP round trip
+     */
+    private final class Connection {
+
+        final Transport transport;
+        boolean open;
+
+        Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            if (!open) {
+                transport.connect(host, port, username, password);
+                open = true;
+                connects.incrementAndGet();
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        void close() {
+            open = false;
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // Already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.alps.scheduler.batch.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the daily schedule email shows, computed from one {@link TaskSnapshot}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DailyDigest {
+
+    private final LocalDate date;
+    private final long snapshotVersion;
+    private final String snapshotFingerprint;
+    private final Map<String, List<Task>> todayTasksByDept; // sorted by department
+    private final Map<LocalDate, List<Task>> weekTasks;     // Sunday to Saturday, days with tasks only
+
+    /**
+     * The same digest restricted to some departments (case-insensitive); days left without tasks are dropped
+     */
+    public DailyDigest forDepartments(Collection<String> departments) {
+        Set<String> keys = departments.stream()
+                .map(department -> department.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        Map<String, List<Task>> today = new TreeMap<>();
+        todayTasksByDept.forEach((department, tasks) -> {
+            if (keys.contains(department.toLowerCase(Locale.ROOT))) {
+                today.put(department, tasks);
+            }
+        });
+        Map<LocalDate, List<Task>> week = new LinkedHashMap<>();
+        weekTasks.forEach((day, tasks) -> {
+            List<Task> kept = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task.getDepartment() != null && keys.contains(task.getDepartment().toLowerCase(Locale.ROOT))) {
+                    kept.add(task);
+                }
+            }
+            if (!kept.isEmpty()) {
+                week.put(day, kept);
+            }
+        });
+        return new DailyDigest(date, snapshotVersion, snapshotFingerprint, today, week);
+    }
+}
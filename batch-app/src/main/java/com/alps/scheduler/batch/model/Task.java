@@ -16,4 +16,5 @@ public class Task {
     private Integer noOfTimes;
     private String specificDates;
     private String comments;
+    private String recurrenceRule;  // Optional RFC 5545 RRULE (column G); overrides Frequency/Comments
 }
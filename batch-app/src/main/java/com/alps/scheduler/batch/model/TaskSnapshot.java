@@ -0,0 +1,59 @@
+package com.alps.scheduler.batch.model;
+
+import com.alps.scheduler.batch.schedule.ScheduleRule;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Immutable copy of the Tasks-Master sheet as read at {@link #getLoadedAt()}, with every
+ * task's schedule compiled. A batch run renders from exactly one snapshot.
+ * The version increases (within this process) whenever the sheet content changes; the
+ * fingerprint is a content hash that stays the same across restarts for identical data.
+ */
+@Getter
+public final class TaskSnapshot {
+
+    private final long version;
+    private final String fingerprint;
+    private final List<Task> tasks;
+    private final List<ScheduleRule> rules; // rules.get(i) is the compiled schedule of tasks.get(i)
+    private final Instant loadedAt;
+
+    public TaskSnapshot(long version, List<Task> tasks, String fingerprint, Instant loadedAt) {
+        this.version = version;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.rules = tasks.stream().map(ScheduleRule::compile).toList();
+        this.fingerprint = fingerprint;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Content hash over every task field, in sheet order
+     */
+    public static String fingerprintOf(List<Task> tasks) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Task task : tasks) {
+                StringBuilder row = new StringBuilder()
+                        .append(task.getActivity()).append('\u001f')
+                        .append(task.getDepartment()).append('\u001f')
+                        .append(task.getFrequency()).append('\u001f')
+                        .append(task.getNoOfTimes()).append('\u001f')
+                        .append(task.getSpecificDates()).append('\u001f')
+                        .append(task.getComments()).append('\u001f')
+                        .append(task.getRecurrenceRule()).append('\u001e');
+                digest.update(row.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.alps.scheduler.batch.schedule;
+
+import java.util.Locale;
+
+/**
+ * Frequencies understood by the scheduler, as written in the Frequency column
+ */
+public enum Frequency {
+    DAILY("Daily"),
+    WEEKLY("Weekly"),
+    MONTHLY("Monthly"),
+    QUARTERLY("Quarterly"),
+    HALF_YEARLY("Half-Yearly"),
+    YEARLY("Yearly");
+
+    private final String label;
+
+    Frequency(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Resolve a sheet value case-insensitively, or null when blank or unknown
+     */
+    public static Frequency fromLabel(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String upper = value.toUpperCase(Locale.ROOT);
+        for (Frequency frequency : values()) {
+            if (frequency.label.toUpperCase(Locale.ROOT).equals(upper)) {
+                return frequency;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.alps.scheduler.batch.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lazily built {@link YearOccurrenceIndex} per calendar year, bounded with LRU eviction.
+ * Frequency/Comments rules are only evaluated once per year shape (leap year, weekday of Jan 1);
+ * any other year of an already computed shape reuses that template's bits.
+ * All entries belong to one task snapshot; a different snapshot key empties the cache.
+ */
+@Slf4j
+@Component
+public class OccurrenceIndexCache {
+
+    private final int maxYears;
+    private final Map<Integer, YearOccurrenceIndex> byYear;
+    private final YearOccurrenceIndex[] templates = new YearOccurrenceIndex[14];
+    private Object snapshotKey;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong templateHits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OccurrenceIndexCache(@Value("${scheduler.index.max-years:8}") int maxYears) {
+        this.maxYears = maxYears;
+        this.byYear = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, YearOccurrenceIndex> eldest) {
+                if (size() > OccurrenceIndexCache.this.maxYears) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the index of a year for the given snapshot, building it on first use
+     *
+     * @param snapshotKey identifies the task list the rules were compiled from
+     */
+    public YearOccurrenceIndex get(Object snapshotKey, List<ScheduleRule> rules, int year) {
+        synchronized (this) {
+            if (!snapshotKey.equals(this.snapshotKey)) {
+                byYear.clear();
+                Arrays.fill(templates, null);
+                this.snapshotKey = snapshotKey;
+            }
+            YearOccurrenceIndex index = byYear.get(year);
+            if (index != null) {
+                hits.incrementAndGet();
+                return index;
+            }
+            YearOccurrenceIndex template = templates[YearOccurrenceIndex.shapeOf(year)];
+            if (template != null) {
+                templateHits.incrementAndGet();
+                index = template.forYear(year, rules);
+                byYear.put(year, index);
+                return index;
+            }
+        }
+
+        YearOccurrenceIndex index = YearOccurrenceIndex.build(year, rules);
+        builds.incrementAndGet();
+        log.debug("Built occurrence index for {} ({} tasks)", year, rules.size());
+
+        synchronized (this) {
+            // Only keep it if no newer snapshot arrived while we were building
+            if (snapshotKey.equals(this.snapshotKey)) {
+                int shape = YearOccurrenceIndex.shapeOf(year);
+                if (templates[shape] == null) {
+                    templates[shape] = index;
+                }
+                byYear.putIfAbsent(year, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedYears", List.copyOf(byYear.keySet()));
+        stats.put("maxYears", maxYears);
+        stats.put("cachedShapes", Arrays.stream(templates).filter(Objects::nonNull).count());
+        stats.put("hits", hits.get());
+        stats.put("templateHits", templateHits.get());
+        stats.put("builds", builds.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+}
@@ -0,0 +1,466 @@
+package com.alps.scheduler.batch.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Date-only subset of an RFC 5545 recurrence rule, e.g. {@code FREQ=MONTHLY;BYDAY=2TU}
+ * ("every 2nd Tuesday") or {@code FREQ=MONTHLY;BYDAY=-1FR} ("last Friday of the month").
+ * <p>
+ * Supported parts: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT, UNTIL, BYDAY,
+ * BYMONTHDAY, BYMONTH, BYSETPOS and WKST. The rule may be preceded by a {@code DTSTART:yyyyMMdd}
+ * line; without one the recurrence is anchored at 1970-01-01.
+ * <p>
+ * {@link #nextOccurrence(LocalDate)} jumps straight to the first matching recurrence period
+ * instead of testing every day, so listing occurrences costs O(occurrences).
+ */
+public final class RecurrenceRule {
+
+    private static final LocalDate DEFAULT_START = LocalDate.of(1970, 1, 1);
+    private static final int MAX_SEARCH_YEARS = 400; // the Gregorian calendar repeats every 400 years
+    private static final int MAX_COUNT = 10_000; // COUNT is resolved eagerly, one search per occurrence
+    private static final int MAX_INTERVAL = 1_000; // keeps period arithmetic inside the LocalDate range
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern WEEKDAY_NUM = Pattern.compile("([+-]?\\d{1,2})?(MO|TU|WE|TH|FR|SA|SU)");
+
+    private final String text;
+    private final ChronoUnit frequency;
+    private final int interval;
+    private final LocalDate start;
+    private final LocalDate until; // inclusive; COUNT is resolved into this bound
+    private final DayOfWeek weekStart;
+    private final List<WeekdayNum> byDay;
+    private final int[] byMonthDay;
+    private final int monthMask; // bit (month - 1), 0 when BYMONTH is absent
+    private final int[] bySetPos;
+    private final boolean empty;
+
+    private record WeekdayNum(int ordinal, DayOfWeek day) {
+    }
+
+    private RecurrenceRule(String text, ChronoUnit frequency, int interval, LocalDate start, LocalDate until,
+                           Integer count, DayOfWeek weekStart, List<WeekdayNum> byDay, int[] byMonthDay,
+                           int monthMask, int[] bySetPos) {
+        this.text = text;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.start = start;
+        this.weekStart = weekStart;
+        this.byDay = byDay;
+        this.byMonthDay = byMonthDay;
+        this.monthMask = monthMask;
+        this.bySetPos = bySetPos;
+        this.until = count != null ? countBound(count, until) : until;
+        this.empty = this.until != null && this.until.isBefore(start)
+                || search(start, this.until) == null;
+    }
+
+    /**
+     * Parse an RRULE value as written in the Tasks-Master sheet
+     *
+     * @throws IllegalArgumentException if the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String text) {
+        LocalDate start = DEFAULT_START;
+        String rule = null;
+        for (String line : text.trim().split("\\s+")) {
+            String upper = line.toUpperCase(Locale.ROOT);
+            if (upper.startsWith("DTSTART")) {
+                start = parseDate(upper.substring(upper.lastIndexOf(':') + 1));
+            } else if (upper.startsWith("RRULE:")) {
+                rule = upper.substring("RRULE:".length());
+            } else if (upper.startsWith("FREQ=") || upper.contains(";FREQ=")) {
+                rule = upper;
+            } else if (!upper.isEmpty()) {
+                throw new IllegalArgumentException("Unrecognised RRULE line: " + line);
+            }
+        }
+        if (rule == null) {
+            throw new IllegalArgumentException("Missing FREQ");
+        }
+
+        ChronoUnit frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        DayOfWeek weekStart = DayOfWeek.MONDAY;
+        List<WeekdayNum> byDay = List.of();
+        int[] byMonthDay = new int[0];
+        int monthMask = 0;
+        int[] bySetPos = new int[0];
+
+        for (String part : rule.split(";")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Malformed RRULE part: " + part);
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (name) {
+                case "FREQ":
+                    frequency = parseFrequency(value);
+                    break;
+                case "INTERVAL":
+                    interval = parseInt(value, 1, MAX_INTERVAL, name);
+                    break;
+                case "COUNT":
+                    count = parseInt(value, 1, MAX_COUNT, name);
+                    break;
+                case "UNTIL":
+                    until = parseDate(value);
+                    break;
+                case "WKST":
+                    weekStart = parseDay(value);
+                    break;
+                case "BYDAY":
+                    byDay = parseByDay(value);
+                    break;
+                case "BYMONTHDAY":
+                    byMonthDay = parseIntList(value, 31, name);
+                    break;
+                case "BYMONTH":
+                    for (int month : parseIntList(value, 12, name)) {
+                        if (month < 1) {
+                            throw new IllegalArgumentException("BYMONTH out of range: " + month);
+                        }
+                        monthMask |= 1 << (month - 1);
+                    }
+                    break;
+                case "BYSETPOS":
+                    bySetPos = parseIntList(value, 366, name);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported RRULE part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Missing FREQ");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL must not both be set");
+        }
+        if (frequency != ChronoUnit.MONTHS && frequency != ChronoUnit.YEARS
+                && byDay.stream().anyMatch(d -> d.ordinal() != 0)) {
+            throw new IllegalArgumentException("Numbered BYDAY is only valid for MONTHLY and YEARLY rules");
+        }
+        if (frequency == ChronoUnit.WEEKS && byMonthDay.length > 0) {
+            throw new IllegalArgumentException("BYMONTHDAY is not valid for WEEKLY rules");
+        }
+
+        return new RecurrenceRule(text.trim(), frequency, interval, start, until, count,
+                weekStart, byDay, byMonthDay, monthMask, bySetPos);
+    }
+
+    /**
+     * First occurrence on or after a date, or null if the recurrence has ended
+     */
+    public LocalDate nextOccurrence(LocalDate from) {
+        if (empty) {
+            return null;
+        }
+        return search(from, until);
+    }
+
+    /**
+     * Check if the recurrence produces an occurrence on a date
+     */
+    public boolean matches(LocalDate date) {
+        return date.equals(nextOccurrence(date));
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    private LocalDate search(LocalDate from, LocalDate bound) {
+        LocalDate target = from.isBefore(start) ? start : from;
+        if (bound != null && target.isAfter(bound)) {
+            return null;
+        }
+
+        // Jump to the first period on or after the target that the INTERVAL keeps active
+        LocalDate firstPeriod = periodStart(start);
+        long index = frequency.between(firstPeriod, periodStart(target));
+        long remainder = index % interval;
+        if (remainder != 0) {
+            index += interval - remainder;
+        }
+
+        LocalDate period = firstPeriod.plus(index, frequency);
+        LocalDate limit = target.plusYears(MAX_SEARCH_YEARS);
+        while (!period.isAfter(limit) && (bound == null || !period.isAfter(bound))) {
+            for (LocalDate candidate : expand(period)) {
+                if (candidate.isBefore(target)) {
+                    continue;
+                }
+                return bound != null && candidate.isAfter(bound) ? null : candidate;
+            }
+            period = period.plus(interval, frequency);
+        }
+        return null;
+    }
+
+    /**
+     * Resolve COUNT into the date of the last counted occurrence
+     */
+    private LocalDate countBound(int count, LocalDate bound) {
+        LocalDate last = null;
+        LocalDate next = search(start, bound);
+        for (int i = 0; i < count && next != null; i++) {
+            last = next;
+            next = search(next.plusDays(1), bound);
+        }
+        // No occurrence at all: an UNTIL before the start makes the rule empty
+        return last != null ? last : start.minusDays(1);
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        switch (frequency) {
+            case DAYS:
+                return date;
+            case WEEKS:
+                return date.with(TemporalAdjusters.previousOrSame(weekStart));
+            case MONTHS:
+                return date.withDayOfMonth(1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+
+    /**
+     * All dates generated by one recurrence period, ascending
+     */
+    private List<LocalDate> expand(LocalDate period) {
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        switch (frequency) {
+            case DAYS:
+                if (inMonths(period) && inMonthDays(period) && inWeekdays(period)) {
+                    dates.add(period);
+                }
+                break;
+
+            case WEEKS:
+                for (int i = 0; i < 7; i++) {
+                    LocalDate day = period.plusDays(i);
+                    boolean weekday = byDay.isEmpty() ? day.getDayOfWeek() == start.getDayOfWeek() : inWeekdays(day);
+                    if (weekday && inMonths(day)) {
+                        dates.add(day);
+                    }
+                }
+                break;
+
+            case MONTHS:
+                if (inMonths(period)) {
+                    expandMonth(YearMonth.from(period), dates);
+                }
+                break;
+
+            default:
+                int year = period.getYear();
+                if (monthMask == 0 && byMonthDay.length == 0 && !byDay.isEmpty()) {
+                    // BYDAY ordinals count within the whole year, e.g. 20MO
+                    expandWeekdays(period, period.plusYears(1), dates);
+                } else if (monthMask == 0 && byMonthDay.length == 0) {
+                    addIfValid(YearMonth.of(year, start.getMonth()), start.getDayOfMonth(), dates);
+                } else {
+                    for (int month = 1; month <= 12; month++) {
+                        if (monthMask == 0 || (monthMask & (1 << (month - 1))) != 0) {
+                            expandMonth(YearMonth.of(year, month), dates);
+                        }
+                    }
+                }
+                break;
+        }
+        return applySetPos(new ArrayList<>(dates));
+    }
+
+    private void expandMonth(YearMonth month, TreeSet<LocalDate> dates) {
+        if (byMonthDay.length == 0 && byDay.isEmpty()) {
+            addIfValid(month, start.getDayOfMonth(), dates);
+            return;
+        }
+
+        TreeSet<LocalDate> candidates = new TreeSet<>();
+        if (!byDay.isEmpty()) {
+            expandWeekdays(month.atDay(1), month.plusMonths(1).atDay(1), candidates);
+        }
+        if (byMonthDay.length > 0) {
+            TreeSet<LocalDate> monthDays = new TreeSet<>();
+            for (int day : byMonthDay) {
+                addIfValid(month, day > 0 ? day : month.lengthOfMonth() + 1 + day, monthDays);
+            }
+            if (byDay.isEmpty()) {
+                candidates = monthDays;
+            } else {
+                candidates.retainAll(monthDays);
+            }
+        }
+        dates.addAll(candidates);
+    }
+
+    /**
+     * Add the BYDAY dates within [from, to): every matching weekday, or the n-th / n-th last one
+     */
+    private void expandWeekdays(LocalDate from, LocalDate to, TreeSet<LocalDate> dates) {
+        for (WeekdayNum weekday : byDay) {
+            LocalDate first = from.with(TemporalAdjusters.nextOrSame(weekday.day()));
+            if (weekday.ordinal() == 0) {
+                for (LocalDate day = first; day.isBefore(to); day = day.plusWeeks(1)) {
+                    if (inMonths(day)) {
+                        dates.add(day);
+                    }
+                }
+            } else {
+                LocalDate day = weekday.ordinal() > 0
+                        ? first.plusWeeks(weekday.ordinal() - 1)
+                        : to.minusDays(1).with(TemporalAdjusters.previousOrSame(weekday.day()))
+                                .plusWeeks(weekday.ordinal() + 1);
+                if (!day.isBefore(from) && day.isBefore(to) && inMonths(day)) {
+                    dates.add(day);
+                }
+            }
+        }
+    }
+
+    private List<LocalDate> applySetPos(List<LocalDate> dates) {
+        if (bySetPos.length == 0 || dates.isEmpty()) {
+            return dates;
+        }
+        TreeSet<LocalDate> selected = new TreeSet<>();
+        for (int position : bySetPos) {
+            int index = position > 0 ? position - 1 : dates.size() + position;
+            if (index >= 0 && index < dates.size()) {
+                selected.add(dates.get(index));
+            }
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private boolean inMonths(LocalDate date) {
+        return monthMask == 0 || (monthMask & (1 << (date.getMonthValue() - 1))) != 0;
+    }
+
+    private boolean inMonthDays(LocalDate date) {
+        if (byMonthDay.length == 0) {
+            return true;
+        }
+        int length = date.lengthOfMonth();
+        for (int day : byMonthDay) {
+            if (date.getDayOfMonth() == (day > 0 ? day : length + 1 + day)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean inWeekdays(LocalDate date) {
+        if (byDay.isEmpty()) {
+            return true;
+        }
+        for (WeekdayNum weekday : byDay) {
+            if (weekday.day() == date.getDayOfWeek()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addIfValid(YearMonth month, int day, TreeSet<LocalDate> dates) {
+        if (day >= 1 && day <= month.lengthOfMonth()) {
+            dates.add(month.atDay(day));
+        }
+    }
+
+    private static ChronoUnit parseFrequency(String value) {
+        switch (value) {
+            case "DAILY":
+                return ChronoUnit.DAYS;
+            case "WEEKLY":
+                return ChronoUnit.WEEKS;
+            case "MONTHLY":
+                return ChronoUnit.MONTHS;
+            case "YEARLY":
+                return ChronoUnit.YEARS;
+            default:
+                throw new IllegalArgumentException("Unsupported FREQ: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        // Date-only: accepts yyyyMMdd and the date part of yyyyMMddTHHmmssZ
+        try {
+            return LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, BASIC_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        switch (value) {
+            case "MO": return DayOfWeek.MONDAY;
+            case "TU": return DayOfWeek.TUESDAY;
+            case "WE": return DayOfWeek.WEDNESDAY;
+            case "TH": return DayOfWeek.THURSDAY;
+            case "FR": return DayOfWeek.FRIDAY;
+            case "SA": return DayOfWeek.SATURDAY;
+            case "SU": return DayOfWeek.SUNDAY;
+            default: throw new IllegalArgumentException("Invalid weekday: " + value);
+        }
+    }
+
+    private static List<WeekdayNum> parseByDay(String value) {
+        List<WeekdayNum> days = new ArrayList<>();
+        for (String item : value.split(",")) {
+            Matcher matcher = WEEKDAY_NUM.matcher(item);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid BYDAY: " + item);
+            }
+            int ordinal = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 0;
+            if (Math.abs(ordinal) > 53 || (matcher.group(1) != null && ordinal == 0)) {
+                throw new IllegalArgumentException("BYDAY ordinal out of range: " + item);
+            }
+            days.add(new WeekdayNum(ordinal, parseDay(matcher.group(2))));
+        }
+        return List.copyOf(days);
+    }
+
+    private static int[] parseIntList(String value, int maxAbs, String name) {
+        int[] values = Arrays.stream(value.split(","))
+                .mapToInt(item -> parseInt(item, -maxAbs, maxAbs, name))
+                .toArray();
+        for (int v : values) {
+            if (v == 0) {
+                throw new IllegalArgumentException(name + " must not be 0");
+            }
+        }
+        return values;
+    }
+
+    private static int parseInt(String value, int min, int max, String name) {
+        try {
+            int parsed = Integer.parseInt(value.startsWith("+") ? value.substring(1) : value);
+            if (parsed < min || parsed > max) {
+                throw new IllegalArgumentException(name + " out of range: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.alps.scheduler.batch.schedule;
+
+import com.alps.scheduler.batch.model.Task;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Schedule of a single task, compiled once from its Frequency, Specific Dates and Comments
+ * columns so that evaluating a date is a handful of bit tests instead of string parsing.
+ * A valid RRULE column takes precedence over those columns.
+ */
+@Slf4j
+public final class ScheduleRule {
+
+    private static final DateTimeFormatter MONTH_DAY_FORMATTER = DateTimeFormatter.ofPattern("MMMM d", Locale.ENGLISH);
+
+    static final int ALL_DAYS = 0x7F;
+    static final int ALL_MONTHS = 0xFFF;
+
+    private static final ScheduleRule NEVER = new ScheduleRule(null, 0, 0, false, null, null);
+
+    private final Frequency frequency;
+    private final int dayOfWeekMask;   // bit (DayOfWeek.getValue() - 1)
+    private final int monthMask;       // bit (Month.getValue() - 1)
+    private final boolean firstOfMonthOnly;
+    private final Set<MonthDay> specificDates; // non-null when the task is pinned to calendar dates
+    private final RecurrenceRule recurrence;   // non-null when the task has a valid RRULE
+
+    private ScheduleRule(Frequency frequency, int dayOfWeekMask, int monthMask,
+                         boolean firstOfMonthOnly, Set<MonthDay> specificDates, RecurrenceRule recurrence) {
+        this.frequency = frequency;
+        this.dayOfWeekMask = dayOfWeekMask;
+        this.monthMask = monthMask;
+        this.firstOfMonthOnly = firstOfMonthOnly;
+        this.specificDates = specificDates;
+        this.recurrence = recurrence;
+    }
+
+    private ScheduleRule(Frequency frequency, int dayOfWeekMask, int monthMask,
+                         boolean firstOfMonthOnly, Set<MonthDay> specificDates) {
+        this(frequency, dayOfWeekMask, monthMask, firstOfMonthOnly, specificDates, null);
+    }
+
+    /**
+     * Check if the task is scheduled for a specific date
+     */
+    public boolean matches(LocalDate date) {
+        if (recurrence != null) {
+            return recurrence.matches(date);
+        }
+        if (specificDates != null) {
+            return !specificDates.isEmpty()
+                    && specificDates.contains(MonthDay.of(date.getMonthValue(), date.getDayOfMonth()));
+        }
+        return (dayOfWeekMask & dayBit(date.getDayOfWeek())) != 0
+                && (monthMask & monthBit(date.getMonth())) != 0
+                && (!firstOfMonthOnly || date.getDayOfMonth() == 1);
+    }
+
+    /**
+     * Frequency the rule was compiled from, or null for specific-date and unknown frequencies
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * The RRULE driving this schedule, or null for Frequency/Comments based rules
+     */
+    public RecurrenceRule getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Whether occurrences depend only on the day of week, month and day of month, so that
+     * years of the same shape share them. RRULE schedules are anchored at DTSTART and are not.
+     */
+    public boolean isYearShapeInvariant() {
+        return recurrence == null;
+    }
+
+    /**
+     * Compile the schedule of a task
+     */
+    public static ScheduleRule compile(Task task) {
+        // An RRULE, when present and valid, replaces the Frequency/Comments heuristics
+        String rrule = task.getRecurrenceRule();
+        if (rrule != null && !rrule.isBlank()) {
+            try {
+                return new ScheduleRule(null, 0, 0, false, null, RecurrenceRule.parse(rrule));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                log.warn("Invalid RRULE '{}' for task '{}', falling back to Frequency/Comments: {}",
+                        rrule, task.getActivity(), e.getMessage());
+            }
+        }
+
+        // Priority 1: specific dates; if set, the frequency is not consulted
+        if (task.getSpecificDates() != null && !task.getSpecificDates().isEmpty()) {
+            return new ScheduleRule(null, 0, 0, false, parseSpecificDates(task.getSpecificDates()));
+        }
+
+        // Priority 2: frequency-based scheduling
+        String value = task.getFrequency();
+        if (value == null || value.isEmpty()) {
+            return NEVER;
+        }
+        Frequency frequency = Frequency.fromLabel(value);
+        if (frequency == null) {
+            log.warn("Unknown frequency: {}", value);
+            return NEVER;
+        }
+
+        String comments = task.getComments() != null ? task.getComments().toLowerCase() : "";
+        switch (frequency) {
+            case DAILY:
+                if (comments.isEmpty()) {
+                    return new ScheduleRule(frequency, ALL_DAYS, ALL_MONTHS, false, null);
+                }
+                // "Every Monday and Thursday"
+                if (comments.contains("monday") && comments.contains("thursday")) {
+                    return new ScheduleRule(frequency, days(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), ALL_MONTHS, false, null);
+                }
+                // "Every Wednesday"
+                if (comments.contains("wednesday")) {
+                    return new ScheduleRule(frequency, days(DayOfWeek.WEDNESDAY), ALL_MONTHS, false, null);
+                }
+                return new ScheduleRule(frequency, ALL_DAYS, ALL_MONTHS, false, null);
+
+            case WEEKLY:
+                // "Sunday and Wednesday"; otherwise the first day of the week (Sunday)
+                if (comments.contains("sun") && comments.contains("wed")) {
+                    return new ScheduleRule(frequency, days(DayOfWeek.SUNDAY, DayOfWeek.WEDNESDAY), ALL_MONTHS, false, null);
+                }
+                return new ScheduleRule(frequency, days(DayOfWeek.SUNDAY), ALL_MONTHS, false, null);
+
+            case MONTHLY:
+                // First day of every month
+                return new ScheduleRule(frequency, ALL_DAYS, ALL_MONTHS, true, null);
+
+            case QUARTERLY:
+                // First day of quarters: Jan 1, Apr 1, Jul 1, Oct 1
+                return new ScheduleRule(frequency, ALL_DAYS,
+                        months(Month.JANUARY, Month.APRIL, Month.JULY, Month.OCTOBER), true, null);
+
+            case HALF_YEARLY:
+                // "In January and June"; otherwise January 1 and July 1
+                if (comments.contains("january") && comments.contains("june")) {
+                    return new ScheduleRule(frequency, ALL_DAYS, months(Month.JANUARY, Month.JUNE), true, null);
+                }
+                return new ScheduleRule(frequency, ALL_DAYS, months(Month.JANUARY, Month.JULY), true, null);
+
+            case YEARLY:
+                // Yearly tasks are driven by specific dates, which are empty at this point
+                return new ScheduleRule(frequency, 0, 0, false, Collections.emptySet());
+
+            default:
+                return NEVER;
+        }
+    }
+
+    /**
+     * Parse the Specific Dates column ("October 1") the same way the evaluator always has:
+     * trimmed and lower-cased, against a case-sensitive English "MMMM d" pattern.
+     */
+    private static Set<MonthDay> parseSpecificDates(String specificDates) {
+        String normalized = specificDates.trim().toLowerCase();
+        try {
+            return Set.of(MonthDay.parse(normalized, MONTH_DAY_FORMATTER));
+        } catch (DateTimeParseException e) {
+            // Not a standard date format, might be handled in comments
+            return Collections.emptySet();
+        }
+    }
+
+    static int dayBit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    static int monthBit(Month month) {
+        return 1 << (month.getValue() - 1);
+    }
+
+    private static int days(DayOfWeek... days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= dayBit(day);
+        }
+        return mask;
+    }
+
+    private static int months(Month... months) {
+        int mask = 0;
+        for (Month month : months) {
+            mask |= monthBit(month);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,138 @@
+package com.alps.scheduler.batch.schedule;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Occurrence bitmap of every task for one calendar year.
+ * Each task owns a 366-bit row (bit n-1 set when the task runs on day-of-year n), so
+ * "which tasks run on day N" is a column scan and "how often does task X run" is a popcount.
+ */
+public final class YearOccurrenceIndex {
+
+    static final int WORDS_PER_TASK = 6; // 6 x 64 = 384 >= 366 bits
+
+    private final int year;
+    private final int taskCount;
+    private final long[] bits;
+
+    private YearOccurrenceIndex(int year, int taskCount, long[] bits) {
+        this.year = year;
+        this.taskCount = taskCount;
+        this.bits = bits;
+    }
+
+    /**
+     * Evaluate every rule for every day of the year; RRULE schedules jump from occurrence to occurrence
+     */
+    public static YearOccurrenceIndex build(int year, List<ScheduleRule> rules) {
+        int taskCount = rules.size();
+        long[] bits = new long[taskCount * WORDS_PER_TASK];
+        int daysInYear = Year.of(year).length();
+        LocalDate date = LocalDate.ofYearDay(year, 1);
+        for (int day = 0; day < daysInYear; day++, date = date.plusDays(1)) {
+            for (int task = 0; task < taskCount; task++) {
+                ScheduleRule rule = rules.get(task);
+                if (rule.isYearShapeInvariant() && rule.matches(date)) {
+                    bits[task * WORDS_PER_TASK + (day >>> 6)] |= 1L << day;
+                }
+            }
+        }
+        fillRecurrences(year, rules, bits);
+        return new YearOccurrenceIndex(year, taskCount, bits);
+    }
+
+    /**
+     * Set the bits of RRULE schedules by walking their occurrences within the year
+     */
+    private static void fillRecurrences(int year, List<ScheduleRule> rules, long[] bits) {
+        for (int task = 0; task < rules.size(); task++) {
+            RecurrenceRule recurrence = rules.get(task).getRecurrence();
+            if (recurrence == null) {
+                continue;
+            }
+            int offset = task * WORDS_PER_TASK;
+            Arrays.fill(bits, offset, offset + WORDS_PER_TASK, 0L);
+            LocalDate occurrence = recurrence.nextOccurrence(LocalDate.ofYearDay(year, 1));
+            while (occurrence != null && occurrence.getYear() == year) {
+                int day = occurrence.getDayOfYear() - 1;
+                bits[offset + (day >>> 6)] |= 1L << day;
+                occurrence = recurrence.nextOccurrence(occurrence.plusDays(1));
+            }
+        }
+    }
+
+    /**
+     * Reuse these occurrence bits for another year of the same shape.
+     * Only the rows of RRULE schedules, which are tied to actual dates, are recomputed.
+     */
+    public YearOccurrenceIndex forYear(int otherYear, List<ScheduleRule> rules) {
+        if (shapeOf(otherYear) != shapeOf(year)) {
+            throw new IllegalArgumentException("Year " + otherYear + " does not have the shape of " + year);
+        }
+        if (otherYear == year) {
+            return this;
+        }
+        if (rules.stream().allMatch(ScheduleRule::isYearShapeInvariant)) {
+            return new YearOccurrenceIndex(otherYear, taskCount, bits);
+        }
+        long[] copy = bits.clone();
+        fillRecurrences(otherYear, rules, copy);
+        return new YearOccurrenceIndex(otherYear, taskCount, copy);
+    }
+
+    /**
+     * One of the 14 year shapes: 0-6 for common years, 7-13 for leap years, by weekday of Jan 1
+     */
+    public static int shapeOf(int year) {
+        int jan1 = LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1;
+        return Year.isLeap(year) ? 7 + jan1 : jan1;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * Check if a task runs on a day of this year (1-based, as {@link LocalDate#getDayOfYear()})
+     */
+    public boolean isScheduled(int task, int dayOfYear) {
+        int day = dayOfYear - 1;
+        return (bits[task * WORDS_PER_TASK + (day >>> 6)] & (1L << day)) != 0;
+    }
+
+    /**
+     * Indexes of the tasks that run on a day of this year, in task order
+     */
+    public int[] tasksOn(int dayOfYear) {
+        int day = dayOfYear - 1;
+        int word = day >>> 6;
+        long mask = 1L << day;
+        int[] matches = new int[taskCount];
+        int count = 0;
+        for (int task = 0; task < taskCount; task++) {
+            if ((bits[task * WORDS_PER_TASK + word] & mask) != 0) {
+                matches[count++] = task;
+            }
+        }
+        return count == taskCount ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Number of times a task runs in this year
+     */
+    public int occurrenceCount(int task) {
+        int count = 0;
+        int offset = task * WORDS_PER_TASK;
+        for (int word = 0; word < WORDS_PER_TASK; word++) {
+            count += Long.bitCount(bits[offset + word]);
+        }
+        return count;
+    }
+}
@@ -1,42 +1,64 @@
 package com.alps.scheduler.batch.scheduler;
 
-import com.alps.scheduler.batch.service.EmailService;
+import com.alps.scheduler.batch.job.BatchJobRunner;
+import com.alps.scheduler.batch.job.JobExecution;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DailyScheduler {
 
-    private final EmailService emailService;
+    public static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    public static final String CRON_ZONE = "UTC";
+
+    public static final String MORNING = "7:00 AM IST";
+    public static final String MORNING_CRON = "0 30 1 * * ?";
+    public static final String EVENING = "7:00 PM IST";
+    public static final String EVENING_CRON = "0 30 13 * * ?";
+
+    private final BatchJobRunner jobRunner;
+
+    /**
+     * Scheduled slots by schedule time, with their cron expressions (in {@link #CRON_ZONE})
+     */
+    public static Map<String, CronExpression> slots() {
+        Map<String, CronExpression> slots = new LinkedHashMap<>();
+        slots.put(MORNING, CronExpression.parse(MORNING_CRON));
+        slots.put(EVENING, CronExpression.parse(EVENING_CRON));
+        return slots;
+    }
 
     /**
      * Runs at 7:00 AM IST (1:30 AM UTC)
      * Cron: second minute hour day month day-of-week
      */
-    @Scheduled(cron = "0 30 1 * * ?", zone = "UTC")
+    @Scheduled(cron = MORNING_CRON, zone = CRON_ZONE)
     public void sendMorningSchedule() {
         log.info("Starting morning schedule job at 7:00 AM IST");
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
-        emailService.sendDailyScheduleEmail(today, "7:00 AM IST");
-        log.info("Morning schedule job completed");
+        LocalDate today = LocalDate.now(IST);
+        JobExecution job = jobRunner.runSlot(JobExecution.Trigger.SCHEDULED, today, MORNING);
+        log.info("Morning schedule job completed: {}", job.getOutcome());
     }
 
     /**
      * Runs at 7:00 PM IST (1:30 PM UTC)
      * Cron: second minute hour day month day-of-week
      */
-    @Scheduled(cron = "0 30 13 * * ?", zone = "UTC")
+    @Scheduled(cron = EVENING_CRON, zone = CRON_ZONE)
     public void sendEveningSchedule() {
         log.info("Starting evening schedule job at 7:00 PM IST");
-        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
-        emailService.sendDailyScheduleEmail(today, "7:00 PM IST");
-        log.info("Evening schedule job completed");
+        LocalDate today = LocalDate.now(IST);
+        JobExecution job = jobRunner.runSlot(JobExecution.Trigger.SCHEDULED, today, EVENING);
+        log.info("Evening schedule job completed: {}", job.getOutcome());
     }
 }
@@ -0,0 +1,84 @@
+package com.alps.scheduler.batch.scheduler;
+
+import com.alps.scheduler.batch.job.BatchJobRunner;
+import com.alps.scheduler.batch.job.JobExecution;
+import com.alps.scheduler.batch.job.JobHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * After a restart, runs the scheduled slots that fired while the app was down, if the job
+ * history has no successful run for them. Only slots within the catch-up window are run, so a
+ * long outage sends the latest schedule rather than a backlog of stale ones. A slot whose mail
+ * was queued before a crash is not sent twice; the mail outbox skips its dedup keys.
+ */
+@Slf4j
+@Component
+public class MissedSlotCatchUp {
+
+    private final BatchJobRunner jobRunner;
+    private final JobHistory jobHistory;
+    private final boolean enabled;
+    private final Duration window;
+
+    public MissedSlotCatchUp(BatchJobRunner jobRunner, JobHistory jobHistory,
+                             @Value("${scheduler.jobs.catch-up.enabled:true}") boolean enabled,
+                             @Value("${scheduler.jobs.catch-up.window-hours:12}") long windowHours) {
+        this.jobRunner = jobRunner;
+        this.jobHistory = jobHistory;
+        this.enabled = enabled;
+        this.window = Duration.ofHours(windowHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobHistory.hasPriorRuns()) {
+            // First start since job history was added: no record of what ran before
+            log.info("No job history yet, skipping missed-slot catch-up");
+            return;
+        }
+
+        for (MissedSlot slot : findMissed(ZonedDateTime.now(ZoneId.of(DailyScheduler.CRON_ZONE)))) {
+            log.info("Catching up missed {} run for {} (was due at {})", slot.scheduleTime, slot.date, slot.dueAt);
+            jobRunner.runSlot(JobExecution.Trigger.CATCH_UP, slot.date, slot.scheduleTime);
+        }
+    }
+
+    /**
+     * Slots that fired within the window before {@code now} without a successful run, oldest first
+     */
+    List<MissedSlot> findMissed(ZonedDateTime now) {
+        List<MissedSlot> missed = new ArrayList<>();
+        for (Map.Entry<String, CronExpression> slot : DailyScheduler.slots().entrySet()) {
+            ZonedDateTime dueAt = slot.getValue().next(now.minus(window));
+            while (dueAt != null && !dueAt.isAfter(now)) {
+                LocalDate date = dueAt.withZoneSameInstant(DailyScheduler.IST).toLocalDate();
+                if (!jobHistory.hasSucceeded(date, slot.getKey())) {
+                    missed.add(new MissedSlot(slot.getKey(), date, dueAt));
+                }
+                dueAt = slot.getValue().next(dueAt);
+            }
+        }
+        missed.sort(Comparator.comparing(MissedSlot::dueAt));
+        return missed;
+    }
+
+    record MissedSlot(String scheduleTime, LocalDate date, ZonedDateTime dueAt) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.alps.scheduler.batch.service;
+
+import com.alps.scheduler.batch.model.Task;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered HTML of the per-department and per-day blocks of the daily schedule email,
+ * keyed by a content hash of exactly the values each block shows. The evening run almost
+ * always shows the same tasks as the morning run, so it only re-renders what changed.
+ * Bounded with LRU eviction.
+ */
+@Slf4j
+@Component
+public class DigestFragmentCache {
+
+    private static final String TEMPLATE = "daily-schedule-fragments";
+    private static final String DEPARTMENT = "department";
+    private static final String DAY = "day";
+
+    private final TemplateEngine templateEngine;
+    private final int maxEntries;
+    private final Map<String, String> rendered;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DigestFragmentCache(TemplateEngine templateEngine,
+                               @Value("${scheduler.email.fragment-cache-size:256}") int maxEntries) {
+        this.templateEngine = templateEngine;
+        this.maxEntries = maxEntries;
+        this.rendered = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > DigestFragmentCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * HTML of one department block of today's tasks
+     */
+    public String department(String department, List<Task> tasks, JobStats job) {
+        StringBuilder key = new StringBuilder(DEPARTMENT).append('\u001e').append(department);
+        for (Task task : tasks) {
+            key.append('\u001e').append(task.getActivity())
+                    .append('\u001f').append(task.getFrequency())
+                    .append('\u001f').append(task.getComments());
+        }
+        return fragment(DEPARTMENT, hash(key), Map.of(DEPARTMENT, department, "tasks", tasks), job);
+    }
+
+    /**
+     * HTML of one day block of the week's tasks
+     */
+    public String day(String day, List<Task> tasks, JobStats job) {
+        StringBuilder key = new StringBuilder(DAY).append('\u001e').append(day);
+        for (Task task : tasks) {
+            key.append('\u001e').append(task.getActivity())
+                    .append('\u001f').append(task.getDepartment());
+        }
+        return fragment(DAY, hash(key), Map.of(DAY, day, "tasks", tasks), job);
+    }
+
+    /**
+     * Fragment counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + renders.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedFragments", rendered.size());
+        stats.put("maxFragments", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("renders", renders.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private String fragment(String name, String key, Map<String, Object> variables, JobStats job) {
+        synchronized (this) {
+            String html = rendered.get(key);
+            if (html != null) {
+                hits.incrementAndGet();
+                job.hits++;
+                return html;
+            }
+        }
+
+        long startedAt = System.nanoTime();
+        String html = templateEngine.process(TEMPLATE, Collections.singleton(name), new Context(null, variables));
+        job.renderNanos += System.nanoTime() - startedAt;
+        renders.incrementAndGet();
+        job.renders++;
+        synchronized (this) {
+            rendered.put(key, html);
+        }
+        return html;
+    }
+
+    private static String hash(CharSequence key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Fragment counters of one email; not shared between threads
+     */
+    @Getter
+    public static class JobStats {
+
+        private int hits;
+        private int renders;
+        private long renderNanos;
+
+        public int getFragments() {
+            return hits + renders;
+        }
+
+        public double getFragmentRenderMillis() {
+            return renderNanos / 1_000_000.0;
+        }
+    }
+}
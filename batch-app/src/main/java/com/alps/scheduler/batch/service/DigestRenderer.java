@@ -0,0 +1,94 @@
+package com.alps.scheduler.batch.service;
+
+import com.alps.scheduler.batch.model.DailyDigest;
+import com.alps.scheduler.batch.model.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns a {@link DailyDigest} into the subject and HTML body of the daily schedule email.
+ * Safe to call from several threads at once; department and day blocks come from
+ * {@link DigestFragmentCache}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DigestRenderer {
+
+    private final TemplateEngine templateEngine;
+    private final DigestFragmentCache fragmentCache;
+
+    public String subject(LocalDate date, String scheduleTime) {
+        return String.format("ALPS Residency - Daily Task Schedule for %s (%s)", formatDate(date), scheduleTime);
+    }
+
+    /**
+     * Render the email body
+     *
+     * @param fragmentStats collects how many blocks were rendered or taken from the cache
+     */
+    public String render(DailyDigest digest, String scheduleTime, DigestFragmentCache.JobStats fragmentStats) {
+        List<String> todayDepartments = new ArrayList<>();
+        digest.getTodayTasksByDept().forEach((department, tasks) ->
+                todayDepartments.add(fragmentCache.department(department, tasks, fragmentStats)));
+        List<String> weekDays = new ArrayList<>();
+        formatWeekTasks(digest.getWeekTasks()).forEach((day, tasks) ->
+                weekDays.add(fragmentCache.day(day, tasks, fragmentStats)));
+
+        Context context = new Context();
+        context.setVariable("todayFormatted", formatDate(digest.getDate()));
+        context.setVariable("scheduleTime", scheduleTime);
+        context.setVariable("todayDepartments", todayDepartments);
+        context.setVariable("weekDays", weekDays);
+        context.setVariable("weekRange", getWeekRange(digest.getDate()));
+        context.setVariable("nextScheduleMessage", getNextScheduleMessage(scheduleTime));
+
+        return templateEngine.process("daily-schedule-email", context);
+    }
+
+    private String formatDate(LocalDate date) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy", Locale.ENGLISH);
+        return date.format(formatter);
+    }
+
+    private Map<String, List<Task>> formatWeekTasks(Map<LocalDate, List<Task>> weekTasksMap) {
+        Map<String, List<Task>> formattedMap = new LinkedHashMap<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMM d", Locale.ENGLISH);
+
+        weekTasksMap.forEach((date, tasks) -> {
+            String formattedDate = date.format(formatter);
+            formattedMap.put(formattedDate, tasks);
+        });
+
+        return formattedMap;
+    }
+
+    private String getWeekRange(LocalDate date) {
+        LocalDate startOfWeek = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        LocalDate endOfWeek = startOfWeek.plusDays(6);
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+        return String.format("%s - %s", startOfWeek.format(formatter), endOfWeek.format(formatter));
+    }
+
+    private String getNextScheduleMessage(String currentSchedule) {
+        if (currentSchedule.contains("7:00 AM")) {
+            return "Next reminder will be sent at 7:00 PM IST";
+        } else {
+            return "Next reminder will be sent tomorrow at 7:00 AM IST";
+        }
+    }
+}
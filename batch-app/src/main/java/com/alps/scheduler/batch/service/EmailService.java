@@ -1,34 +1,30 @@
 package com.alps.scheduler.batch.service;
 
-import com.alps.scheduler.batch.model.Task;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.alps.scheduler.batch.job.JobExecution;
+import com.alps.scheduler.batch.mail.DigestFanOutService;
+import com.alps.scheduler.batch.mail.FanOutResult;
+import com.alps.scheduler.batch.mail.MailOutbox;
+import com.alps.scheduler.batch.mail.OutboxMessage;
+import com.alps.scheduler.batch.model.DailyDigest;
+import com.alps.scheduler.batch.model.TaskSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final MailOutbox mailOutbox;
     private final TaskSchedulerService taskSchedulerService;
+    private final DigestRenderer digestRenderer;
+    private final DigestFanOutService digestFanOutService;
 
     @Value("${scheduler.email.to:reservations@alpsresidencymadurai.in}")
     private String toEmail;
@@ -39,78 +35,54 @@ public class EmailService {
     @Value("${spring.mail.username:}")
     private String mailUsername;
 
-    public void sendDailyScheduleEmail(LocalDate date, String scheduleTime) {
-        try {
-            // Get today's tasks
-            List<Task> todayTasks = taskSchedulerService.getTasksForDate(date);
-            Map<String, List<Task>> todayTasksByDept = taskSchedulerService.groupTasksByDepartment(todayTasks);
-
-            // Get week's tasks
-            Map<LocalDate, List<Task>> weekTasksMap = taskSchedulerService.getTasksForCurrentWeek(date);
-
-            // Prepare email content
-            Context context = new Context();
-            context.setVariable("todayFormatted", formatDate(date));
-            context.setVariable("scheduleTime", scheduleTime);
-            context.setVariable("todayTasksByDept", todayTasksByDept);
-            context.setVariable("weekTasks", formatWeekTasks(weekTasksMap));
-            context.setVariable("weekRange", getWeekRange(date));
-            context.setVariable("nextScheduleMessage", getNextScheduleMessage(scheduleTime));
-
-            String htmlContent = templateEngine.process("daily-schedule-email", context);
-
-            // Send email
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            // Use configured username if available, otherwise use fromEmail
-            String actualFromEmail = (mailUsername != null && !mailUsername.isEmpty()) ? mailUsername : fromEmail;
-
-            helper.setFrom(actualFromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(String.format("ALPS Residency - Daily Task Schedule for %s (%s)",
-                    formatDate(date), scheduleTime));
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Daily schedule email sent successfully to {} for date {} at {}",
-                    toEmail, date, scheduleTime);
-
-        } catch (MessagingException e) {
-            log.error("Failed to send email: {}", e.getMessage(), e);
+    /**
+     * Render the daily schedule from one task snapshot taken for this run and queue it,
+     * together with every configured department recipient's part of it, in the mail outbox.
+     * Returns as soon as the mail is queued; emails already queued or sent for the job's
+     * date and slot are not queued again. Phase timings and counts are recorded on the job.
+     *
+     * @return what was rendered, including the snapshot version
+     */
+    public DailyDigest sendDailyScheduleEmail(JobExecution job) {
+        LocalDate date = job.getDate();
+        String scheduleTime = job.getScheduleTime();
+
+        // One sheet read per run; today's and the week's tasks come from the same snapshot
+        TaskSnapshot snapshot = job.phase(JobExecution.FETCH, taskSchedulerService::loadSnapshot);
+        DailyDigest digest = job.phase(JobExecution.COMPUTE, () -> taskSchedulerService.getDailyDigest(snapshot, date));
+        job.recordDigest(digest);
+
+        // Use configured username if available, otherwise use fromEmail
+        String actualFromEmail = (mailUsername != null && !mailUsername.isEmpty()) ? mailUsername : fromEmail;
+
+        // Prepare email content; unchanged department and day blocks come from the fragment cache
+        long renderStartedAt = System.nanoTime();
+        DigestFragmentCache.JobStats fragmentStats = new DigestFragmentCache.JobStats();
+        String htmlContent = job.phase(JobExecution.RENDER, () -> digestRenderer.render(digest, scheduleTime, fragmentStats));
+        log.info("Rendered daily schedule email in {} ms: {} of {} fragments from cache, {} ms rendering fragments",
+                String.format(Locale.ROOT, "%.2f", (System.nanoTime() - renderStartedAt) / 1_000_000.0),
+                fragmentStats.getHits(), fragmentStats.getFragments(),
+                String.format(Locale.ROOT, "%.2f", fragmentStats.getFragmentRenderMillis()));
+
+        // Queue email; the outbox sender delivers it and retries if the mail server is unavailable
+        OutboxMessage message = OutboxMessage.builder()
+                .dedupKey(OutboxMessage.dedupKey(date.toString(), job.getSlot(), toEmail))
+                .from(actualFromEmail)
+                .to(toEmail)
+                .subject(digestRenderer.subject(date, scheduleTime))
+                .html(htmlContent)
+                .build();
+        int queued = job.phase(JobExecution.SEND, () -> mailOutbox.enqueue(List.of(message)));
+        if (queued > 0) {
+            log.info("Daily schedule email queued for {} for date {} at {} (task snapshot v{}, {})",
+                    toEmail, date, scheduleTime, digest.getSnapshotVersion(), digest.getSnapshotFingerprint());
         }
-    }
 
-    private String formatDate(LocalDate date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy", Locale.ENGLISH);
-        return date.format(formatter);
-    }
-
-    private Map<String, List<Task>> formatWeekTasks(Map<LocalDate, List<Task>> weekTasksMap) {
-        Map<String, List<Task>> formattedMap = new LinkedHashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMM d", Locale.ENGLISH);
-
-        weekTasksMap.forEach((date, tasks) -> {
-            String formattedDate = date.format(formatter);
-            formattedMap.put(formattedDate, tasks);
-        });
-
-        return formattedMap;
-    }
-
-    private String getWeekRange(LocalDate date) {
-        LocalDate startOfWeek = date.with(java.time.temporal.TemporalAdjusters.previousOrSame(java.time.DayOfWeek.SUNDAY));
-        LocalDate endOfWeek = startOfWeek.plusDays(6);
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
-        return String.format("%s - %s", startOfWeek.format(formatter), endOfWeek.format(formatter));
-    }
-
-    private String getNextScheduleMessage(String currentSchedule) {
-        if (currentSchedule.contains("7:00 AM")) {
-            return "Next reminder will be sent at 7:00 PM IST";
-        } else {
-            return "Next reminder will be sent tomorrow at 7:00 AM IST";
-        }
+        FanOutResult fanOut = digestFanOutService.send(digest, scheduleTime, job.getSlot(), actualFromEmail);
+        job.addPhase(JobExecution.RENDER, fanOut.getRenderMillis());
+        job.addPhase(JobExecution.SEND, fanOut.getEnqueueMillis());
+        job.setEmailsQueued(queued + fanOut.getQueued());
+        job.setDuplicatesSkipped(1 - queued + fanOut.getDuplicates());
+        return digest;
     }
 }
@@ -58,7 +58,7 @@ public class GoogleSheetsService {
      */
     public List<Task> getAllTasks() {
         try {
-            String range = sheetName + "!A2:F"; // Skip header row
+            String range = sheetName + "!A2:G"; // Skip header row
             ValueRange response = sheetsService.spreadsheets().values()
                     .get(spreadsheetId, range)
                     .execute();
@@ -174,6 +174,7 @@ public class GoogleSheetsService {
                     .noOfTimes(getIntValue(row, 3))
                     .specificDates(getStringValue(row, 4))
                     .comments(getStringValue(row, 5))
+                    .recurrenceRule(getStringValue(row, 6))
                     .build();
         } catch (Exception e) {
             log.warn("Error mapping row to Task: {}", e.getMessage());
@@ -1,15 +1,19 @@
 package com.alps.scheduler.batch.service;
 
+import com.alps.scheduler.batch.model.DailyDigest;
 import com.alps.scheduler.batch.model.Task;
+import com.alps.scheduler.batch.model.TaskSnapshot;
+import com.alps.scheduler.batch.schedule.OccurrenceIndexCache;
+import com.alps.scheduler.batch.schedule.YearOccurrenceIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,33 +22,53 @@ import java.util.stream.Collectors;
 public class TaskSchedulerService {
 
     private final GoogleSheetsService googleSheetsService;
+    private final OccurrenceIndexCache occurrenceIndexCache;
+
+    private final AtomicReference<TaskSnapshot> lastSnapshot = new AtomicReference<>();
+
+    /**
+     * Read the sheet once into an immutable snapshot. The version only moves forward when
+     * the content differs from the previous load.
+     */
+    public TaskSnapshot loadSnapshot() {
+        List<Task> tasks = googleSheetsService.getAllTasks();
+        String fingerprint = TaskSnapshot.fingerprintOf(tasks);
+        TaskSnapshot previous = lastSnapshot.get();
+        if (previous != null && previous.getFingerprint().equals(fingerprint)) {
+            return previous;
+        }
+        TaskSnapshot snapshot = new TaskSnapshot(previous != null ? previous.getVersion() + 1 : 1,
+                tasks, fingerprint, Instant.now());
+        lastSnapshot.set(snapshot);
+        log.info("Loaded task snapshot v{} ({} tasks, {})", snapshot.getVersion(), tasks.size(), fingerprint);
+        return snapshot;
+    }
+
+    /**
+     * Today's tasks by department and the tasks of the week (Sunday to Saturday) around it,
+     * in one pass over the week of the given snapshot
+     */
+    public DailyDigest getDailyDigest(TaskSnapshot snapshot, LocalDate date) {
+        LocalDate startOfWeek = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        Map<LocalDate, List<Task>> weekTasks = tasksBetween(snapshot, startOfWeek, startOfWeek.plusDays(6));
+        List<Task> todayTasks = weekTasks.getOrDefault(date, List.of());
+        return new DailyDigest(date, snapshot.getVersion(), snapshot.getFingerprint(),
+                groupTasksByDepartment(todayTasks), weekTasks);
+    }
 
     /**
      * Get tasks for a specific date
      */
     public List<Task> getTasksForDate(LocalDate date) {
-        List<Task> allTasks = googleSheetsService.getAllTasks();
-        return allTasks.stream()
-                .filter(task -> isTaskScheduledForDate(task, date))
-                .collect(Collectors.toList());
+        TaskSnapshot snapshot = loadSnapshot();
+        return tasksScheduledOn(snapshot.getTasks(), yearIndex(snapshot, date.getYear()), date);
     }
 
     /**
      * Get tasks for a date range
      */
     public Map<LocalDate, List<Task>> getTasksForDateRange(LocalDate startDate, LocalDate endDate) {
-        Map<LocalDate, List<Task>> tasksByDate = new TreeMap<>();
-
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            List<Task> tasksForDate = getTasksForDate(currentDate);
-            if (!tasksForDate.isEmpty()) {
-                tasksByDate.put(currentDate, tasksForDate);
-            }
-            currentDate = currentDate.plusDays(1);
-        }
-
-        return tasksByDate;
+        return tasksBetween(loadSnapshot(), startDate, endDate);
     }
 
     /**
@@ -58,148 +82,44 @@ public class TaskSchedulerService {
     }
 
     /**
-     * Check if a task is scheduled for a specific date
+     * Evaluate every day of a range against one snapshot; days without tasks are left out
      */
-    private boolean isTaskScheduledForDate(Task task, LocalDate date) {
-        // Priority 1: Check specific dates
-        if (task.getSpecificDates() != null && !task.getSpecificDates().isEmpty()) {
-            if (matchesSpecificDate(task.getSpecificDates(), date)) {
-                return true;
+    private Map<LocalDate, List<Task>> tasksBetween(TaskSnapshot snapshot, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, List<Task>> tasksByDate = new TreeMap<>();
+
+        YearOccurrenceIndex index = null;
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            if (index == null || index.getYear() != currentDate.getYear()) {
+                index = yearIndex(snapshot, currentDate.getYear());
             }
-            // If specific date is set but doesn't match, don't check frequency
-            return false;
+            List<Task> tasksForDate = tasksScheduledOn(snapshot.getTasks(), index, currentDate);
+            if (!tasksForDate.isEmpty()) {
+                tasksByDate.put(currentDate, tasksForDate);
+            }
+            currentDate = currentDate.plusDays(1);
         }
 
-        // Priority 2: Check frequency-based scheduling
-        return matchesFrequency(task, date);
+        return tasksByDate;
     }
 
     /**
-     * Match specific dates
+     * Occurrence bitmaps of a year, reused for as long as the sheet content is unchanged
      */
-    private boolean matchesSpecificDate(String specificDates, LocalDate date) {
-        String normalized = specificDates.trim().toLowerCase();
-
-        // Parse date formats like "October 1", "December 1"
-        DateTimeFormatter monthDayFormatter = DateTimeFormatter.ofPattern("MMMM d", Locale.ENGLISH);
-        try {
-            MonthDay specificMonthDay = MonthDay.parse(normalized, monthDayFormatter);
-            MonthDay currentMonthDay = MonthDay.from(date);
-            return specificMonthDay.equals(currentMonthDay);
-        } catch (Exception e) {
-            // Not a standard date format, might be handled in comments
-            return false;
-        }
+    private YearOccurrenceIndex yearIndex(TaskSnapshot snapshot, int year) {
+        return occurrenceIndexCache.get(snapshot.getFingerprint(), snapshot.getRules(), year);
     }
 
     /**
-     * Match frequency-based scheduling
+     * Look up the tasks of a date in its year's occurrence index
      */
-    private boolean matchesFrequency(Task task, LocalDate date) {
-        String frequency = task.getFrequency();
-        String comments = task.getComments() != null ? task.getComments().toLowerCase() : "";
-
-        if (frequency == null || frequency.isEmpty()) {
-            return false;
-        }
-
-        switch (frequency.toUpperCase()) {
-            case "DAILY":
-                return matchesDailySchedule(comments, date);
-
-            case "WEEKLY":
-                return matchesWeeklySchedule(task, comments, date);
-
-            case "MONTHLY":
-                return matchesMonthlySchedule(comments, date);
-
-            case "QUARTERLY":
-                return matchesQuarterlySchedule(date);
-
-            case "HALF-YEARLY":
-                return matchesHalfYearlySchedule(comments, date);
-
-            case "YEARLY":
-                return matchesYearlySchedule(task.getSpecificDates(), date);
-
-            default:
-                log.warn("Unknown frequency: {}", frequency);
-                return false;
-        }
-    }
-
-    private boolean matchesDailySchedule(String comments, LocalDate date) {
-        if (comments.isEmpty()) {
-            return true; // Every day
+    private List<Task> tasksScheduledOn(List<Task> tasks, YearOccurrenceIndex index, LocalDate date) {
+        int[] scheduled = index.tasksOn(date.getDayOfYear());
+        List<Task> result = new ArrayList<>(scheduled.length);
+        for (int task : scheduled) {
+            result.add(tasks.get(task));
         }
-
-        // Check for specific days like "Every Monday and Thursday"
-        if (comments.contains("monday") && comments.contains("thursday")) {
-            DayOfWeek day = date.getDayOfWeek();
-            return day == DayOfWeek.MONDAY || day == DayOfWeek.THURSDAY;
-        }
-
-        // Check for "Every Wednesday"
-        if (comments.contains("wednesday")) {
-            return date.getDayOfWeek() == DayOfWeek.WEDNESDAY;
-        }
-
-        return true; // Default to every day
-    }
-
-    private boolean matchesWeeklySchedule(Task task, String comments, LocalDate date) {
-        // Week starts on Sunday
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-
-        // Handle "Sunday and Wednesday" pattern
-        if (comments.contains("sun") && comments.contains("wed")) {
-            return dayOfWeek == DayOfWeek.SUNDAY || dayOfWeek == DayOfWeek.WEDNESDAY;
-        }
-
-        // Handle "every Sunday" pattern
-        if (comments.contains("sunday")) {
-            return dayOfWeek == DayOfWeek.SUNDAY;
-        }
-
-        // Default: first day of week (Sunday)
-        return dayOfWeek == DayOfWeek.SUNDAY;
-    }
-
-    private boolean matchesMonthlySchedule(String comments, LocalDate date) {
-        // Check for "First day of every month"
-        if (comments.contains("first day")) {
-            return date.getDayOfMonth() == 1;
-        }
-
-        // Default: first day of month
-        return date.getDayOfMonth() == 1;
-    }
-
-    private boolean matchesQuarterlySchedule(LocalDate date) {
-        // First day of quarters: Jan 1, Apr 1, Jul 1, Oct 1
-        int month = date.getMonthValue();
-        int day = date.getDayOfMonth();
-
-        return day == 1 && (month == 1 || month == 4 || month == 7 || month == 10);
-    }
-
-    private boolean matchesHalfYearlySchedule(String comments, LocalDate date) {
-        // Check for "In January and June"
-        if (comments.contains("january") && comments.contains("june")) {
-            Month month = date.getMonth();
-            int day = date.getDayOfMonth();
-            return day == 1 && (month == Month.JANUARY || month == Month.JUNE);
-        }
-
-        // Default: January 1 and July 1
-        int month = date.getMonthValue();
-        int day = date.getDayOfMonth();
-        return day == 1 && (month == 1 || month == 7);
-    }
-
-    private boolean matchesYearlySchedule(String specificDates, LocalDate date) {
-        // Yearly tasks should have specific dates set
-        return matchesSpecificDate(specificDates, date);
+        return result;
     }
 
     /**
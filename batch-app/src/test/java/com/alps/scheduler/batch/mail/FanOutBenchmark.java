@@ -0,0 +1,125 @@
+package com.alps.scheduler.batch.mail;
+
+import ch.qos.logback.classic.Logger;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Digest fan-out throughput against an in-process GreenMail SMTP server: one
+ * {@link JavaMailSenderImpl#send} per message (a connection each) versus the worker threads
+ * sharing an {@link SmtpTransportPool}, as {@link OutboxSender} sends, without a rate limit.
+ * Each operation delivers one digest to every recipient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    private static final int THREADS = 8;
+
+    @Param({"300"})
+    public int recipients;
+
+    @Param({"3"})
+    public int connections;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private ExecutorService workers;
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without Spring Boot, logback logs everything at DEBUG, including every SMTP command
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        workers = Executors.newFixedThreadPool(THREADS);
+
+        StringBuilder body = new StringBuilder("<html><body><h2>Today's tasks</h2><table>");
+        for (int i = 0; i < 40; i++) {
+            body.append("<tr><td>MEP</td><td>Check generator ").append(i).append("</td><td>Daily</td></tr>");
+        }
+        html = body.append("</table></body></html>").toString();
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        // GreenMail keeps every delivered message in memory
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workers.shutdownNow();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public int connectionPerMessage() throws Exception {
+        for (int i = 0; i < recipients; i++) {
+            mailSender.send(message(i));
+        }
+        return recipients;
+    }
+
+    @Benchmark
+    public int pooledConnections() throws Exception {
+        try (SmtpTransportPool pool = new SmtpTransportPool(mailSender.getSession(), JavaMailSenderImpl.DEFAULT_PROTOCOL,
+                mailSender.getHost(), mailSender.getPort(), null, null, connections, 0)) {
+            List<Callable<Void>> jobs = new ArrayList<>(recipients);
+            for (int i = 0; i < recipients; i++) {
+                int recipient = i;
+                jobs.add(() -> {
+                    pool.send(message(recipient));
+                    return null;
+                });
+            }
+            for (Future<Void> job : workers.invokeAll(jobs)) {
+                job.get();
+            }
+        }
+        return recipients;
+    }
+
+    private MimeMessage message(int recipient) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("scheduler@example.com");
+        helper.setTo("staff" + recipient + "@example.com");
+        helper.setSubject("Daily digest");
+        helper.setText(html, true);
+        return message;
+    }
+}
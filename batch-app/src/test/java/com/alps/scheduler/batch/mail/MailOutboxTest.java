@@ -0,0 +1,83 @@
+package com.alps.scheduler.batch.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailOutboxTest {
+
+    @TempDir
+    Path dir;
+
+    private Path journal;
+    private MailOutbox outbox;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = dir.resolve("outbox.jsonl");
+        outbox = new MailOutbox(new ObjectMapper(), journal.toString(), 3, 1000, 60_000, 7);
+        outbox.recover();
+    }
+
+    @Test
+    void failedCompactionKeepsJournalOpen() throws Exception {
+        outbox.enqueue(List.of(message("a@example.com")));
+        OutboxMessage due = outbox.takeDue(1).get(0);
+
+        // A directory in the way makes the rename at the end of compaction fail
+        Files.delete(journal);
+        Files.createDirectories(journal.resolve("blocked"));
+        outbox.markSent(due);
+
+        assertThat(outbox.enqueue(List.of(message("b@example.com")))).isEqualTo(1);
+        assertThat(outbox.getStats()).containsEntry("depth", 1);
+    }
+
+    @Test
+    void journalFailureReleasesMessage() throws Exception {
+        outbox.enqueue(List.of(message("a@example.com")));
+        OutboxMessage due = outbox.takeDue(1).get(0);
+        ((FileChannel) ReflectionTestUtils.getField(outbox, "journal")).close();
+
+        assertThatThrownBy(() -> outbox.markSent(due)).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> outbox.markFailed(due, "journal")).isInstanceOf(UncheckedIOException.class);
+
+        assertThat(outbox.getStats()).containsEntry("depth", 1).containsEntry("inFlight", 0);
+        assertThat(due.getAttempts()).isEqualTo(1);
+        assertThat(due.getNextAttemptAt()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void compactionReplacesJournal() throws Exception {
+        outbox.enqueue(List.of(message("a@example.com"), message("b@example.com")));
+        outbox.takeDue(2).forEach(outbox::markSent);
+        outbox.enqueue(List.of(message("c@example.com")));
+
+        MailOutbox restarted = new MailOutbox(new ObjectMapper(), journal.toString(), 3, 1000, 60_000, 7);
+        restarted.recover();
+
+        assertThat(restarted.getStats()).containsEntry("depth", 1).containsEntry("recoveredAtStartup", 1L);
+        assertThat(restarted.contains(OutboxMessage.dedupKey("2026-10-19", "AM", "a@example.com"))).isTrue();
+    }
+
+    private static OutboxMessage message(String to) {
+        return OutboxMessage.builder()
+                .dedupKey(OutboxMessage.dedupKey("2026-10-19", "AM", to))
+                .from("scheduler@example.com")
+                .to(to)
+                .subject("Tasks")
+                .html("<p>Tasks</p>")
+                .build();
+    }
+}
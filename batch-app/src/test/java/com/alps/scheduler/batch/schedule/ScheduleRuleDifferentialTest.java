@@ -0,0 +1,257 @@
+package com.alps.scheduler.batch.schedule;
+
+import com.alps.scheduler.batch.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ScheduleRule} must give the same answer as the original per-evaluation predicate
+ * for every task shape on every day of a full 400-year Gregorian cycle, after which the
+ * calendar (leap years and weekdays) repeats exactly.
+ */
+class ScheduleRuleDifferentialTest {
+
+    private static final LocalDate CYCLE_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate CYCLE_END = LocalDate.of(2399, 12, 31);
+
+    private static final List<String> FREQUENCIES = Arrays.asList(
+            "Daily", "Weekly", "Monthly", "Quarterly", "Half-Yearly", "Yearly",
+            "daily", "WEEKLY", "half-yearly", "Fortnightly", "", null);
+
+    private static final List<String> COMMENTS = Arrays.asList(
+            null, "", "Every Monday and Thursday", "every wednesday", "Sunday and Wednesday",
+            "Sun / Wed", "Every Sunday", "First day of every month", "In January and June",
+            "June and January", "Check with supervisor", "MONDAY, THURSDAY and WEDNESDAY");
+
+    private static final List<String> SPECIFIC_DATES = Arrays.asList(
+            "October 1", "December 1", " February 29 ", "january 15", "October 1, December 1",
+            "Every 1st", "13/04");
+
+    private static final List<Integer> NO_OF_TIMES = Arrays.asList(null, 1, 4);
+
+    @Test
+    void compiledRulesMatchLegacyPredicateOverFullGregorianCycle() {
+        assertThat(CYCLE_END.plusDays(1)).isEqualTo(CYCLE_START.plusYears(400));
+
+        List<Task> tasks = new ArrayList<>();
+        for (String frequency : FREQUENCIES) {
+            for (String comments : COMMENTS) {
+                tasks.add(task(frequency, comments, null, null));
+            }
+            // An empty Specific Dates cell counts as unset
+            tasks.add(task(frequency, "Every Monday and Thursday", "", null));
+        }
+        // Specific dates take priority over the frequency, so one frequency per value is enough.
+        // The legacy parser throws on every one of these dates, so this set is kept small.
+        for (String specificDates : SPECIFIC_DATES) {
+            tasks.add(task("Yearly", null, specificDates, null));
+        }
+        tasks.add(task("Daily", "Every Sunday", "October 1", null));
+        tasks.add(task(null, null, "October 1", 4));
+        // No. of Times does not affect which days a task falls on
+        for (Integer noOfTimes : NO_OF_TIMES) {
+            for (String frequency : FREQUENCIES) {
+                tasks.add(task(frequency, "Every Monday and Thursday", null, noOfTimes));
+            }
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        long scheduled = 0;
+        for (Task task : tasks) {
+            ScheduleRule rule = ScheduleRule.compile(task);
+            boolean legacyFails = legacyFails(task);
+            for (LocalDate date = CYCLE_START; !date.isAfter(CYCLE_END); date = date.plusDays(1)) {
+                boolean expected = !legacyFails && LegacySchedule.isTaskScheduledForDate(task, date);
+                if (rule.matches(date) != expected) {
+                    if (mismatches.size() < 20) {
+                        mismatches.add(task + " on " + date + ": legacy " + expected);
+                    }
+                } else if (expected) {
+                    scheduled++;
+                }
+            }
+        }
+
+        assertThat(mismatches).isEmpty();
+        // Guard against both sides trivially answering false
+        assertThat(scheduled).isGreaterThan(1_000_000);
+    }
+
+    /**
+     * The old evaluator threw a NullPointerException for a Yearly task without specific dates,
+     * on every date, failing the whole request; such a task is never scheduled now
+     */
+    private static boolean legacyFails(Task task) {
+        try {
+            LegacySchedule.isTaskScheduledForDate(task, CYCLE_START);
+            return false;
+        } catch (NullPointerException e) {
+            assertThat(Frequency.fromLabel(task.getFrequency())).isEqualTo(Frequency.YEARLY);
+            assertThat(task.getSpecificDates()).isNullOrEmpty();
+            return true;
+        }
+    }
+
+    private static Task task(String frequency, String comments, String specificDates, Integer noOfTimes) {
+        return Task.builder()
+                .activity("Task")
+                .department("MEP")
+                .frequency(frequency)
+                .comments(comments)
+                .specificDates(specificDates)
+                .noOfTimes(noOfTimes)
+                .build();
+    }
+
+    /**
+     * The evaluator as it was before rules were compiled, kept verbatim as the reference
+     */
+    private static final class LegacySchedule {
+
+        static boolean isTaskScheduledForDate(Task task, LocalDate date) {
+            // Priority 1: Check specific dates
+            if (task.getSpecificDates() != null && !task.getSpecificDates().isEmpty()) {
+                if (matchesSpecificDate(task.getSpecificDates(), date)) {
+                    return true;
+                }
+                // If specific date is set but doesn't match, don't check frequency
+                return false;
+            }
+
+            // Priority 2: Check frequency-based scheduling
+            return matchesFrequency(task, date);
+        }
+
+        static boolean matchesSpecificDate(String specificDates, LocalDate date) {
+            String normalized = specificDates.trim().toLowerCase();
+
+            // Parse date formats like "October 1", "December 1"
+            DateTimeFormatter monthDayFormatter = DateTimeFormatter.ofPattern("MMMM d", Locale.ENGLISH);
+            try {
+                MonthDay specificMonthDay = MonthDay.parse(normalized, monthDayFormatter);
+                MonthDay currentMonthDay = MonthDay.from(date);
+                return specificMonthDay.equals(currentMonthDay);
+            } catch (Exception e) {
+                // Not a standard date format, might be handled in comments
+                return false;
+            }
+        }
+
+        static boolean matchesFrequency(Task task, LocalDate date) {
+            String frequency = task.getFrequency();
+            String comments = task.getComments() != null ? task.getComments().toLowerCase() : "";
+
+            if (frequency == null || frequency.isEmpty()) {
+                return false;
+            }
+
+            switch (frequency.toUpperCase()) {
+                case "DAILY":
+                    return matchesDailySchedule(comments, date);
+
+                case "WEEKLY":
+                    return matchesWeeklySchedule(comments, date);
+
+                case "MONTHLY":
+                    return matchesMonthlySchedule(comments, date);
+
+                case "QUARTERLY":
+                    return matchesQuarterlySchedule(date);
+
+                case "HALF-YEARLY":
+                    return matchesHalfYearlySchedule(comments, date);
+
+                case "YEARLY":
+                    return matchesYearlySchedule(task.getSpecificDates(), date);
+
+                default:
+                    return false;
+            }
+        }
+
+        static boolean matchesDailySchedule(String comments, LocalDate date) {
+            if (comments.isEmpty()) {
+                return true; // Every day
+            }
+
+            // Check for specific days like "Every Monday and Thursday"
+            if (comments.contains("monday") && comments.contains("thursday")) {
+                DayOfWeek day = date.getDayOfWeek();
+                return day == DayOfWeek.MONDAY || day == DayOfWeek.THURSDAY;
+            }
+
+            // Check for "Every Wednesday"
+            if (comments.contains("wednesday")) {
+                return date.getDayOfWeek() == DayOfWeek.WEDNESDAY;
+            }
+
+            return true; // Default to every day
+        }
+
+        static boolean matchesWeeklySchedule(String comments, LocalDate date) {
+            // Week starts on Sunday
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+
+            // Handle "Sunday and Wednesday" pattern
+            if (comments.contains("sun") && comments.contains("wed")) {
+                return dayOfWeek == DayOfWeek.SUNDAY || dayOfWeek == DayOfWeek.WEDNESDAY;
+            }
+
+            // Handle "every Sunday" pattern
+            if (comments.contains("sunday")) {
+                return dayOfWeek == DayOfWeek.SUNDAY;
+            }
+
+            // Default: first day of week (Sunday)
+            return dayOfWeek == DayOfWeek.SUNDAY;
+        }
+
+        static boolean matchesMonthlySchedule(String comments, LocalDate date) {
+            // Check for "First day of every month"
+            if (comments.contains("first day")) {
+                return date.getDayOfMonth() == 1;
+            }
+
+            // Default: first day of month
+            return date.getDayOfMonth() == 1;
+        }
+
+        static boolean matchesQuarterlySchedule(LocalDate date) {
+            // First day of quarters: Jan 1, Apr 1, Jul 1, Oct 1
+            int month = date.getMonthValue();
+            int day = date.getDayOfMonth();
+
+            return day == 1 && (month == 1 || month == 4 || month == 7 || month == 10);
+        }
+
+        static boolean matchesHalfYearlySchedule(String comments, LocalDate date) {
+            // Check for "In January and June"
+            if (comments.contains("january") && comments.contains("june")) {
+                Month month = date.getMonth();
+                int day = date.getDayOfMonth();
+                return day == 1 && (month == Month.JANUARY || month == Month.JUNE);
+            }
+
+            // Default: January 1 and July 1
+            int month = date.getMonthValue();
+            int day = date.getDayOfMonth();
+            return day == 1 && (month == 1 || month == 7);
+        }
+
+        static boolean matchesYearlySchedule(String specificDates, LocalDate date) {
+            // Yearly tasks should have specific dates set
+            return matchesSpecificDate(specificDates, date);
+        }
+    }
+}
@@ -61,6 +61,7 @@ function App() {
                   <div className="user-details">
                     <span className="user-name">{user.name}</span>
                     <span className="user-email">{user.email}</span>
+                    {user.tenant && <span className="user-tenant">{user.tenant}</span>}
                     <span className={`user-role role-${user.role?.toLowerCase()}`}>{user.role}</span>
                   </div>
                 </div>
@@ -88,7 +89,11 @@ function App() {
           </div>
           <div className="header-title">
             <h1>ALPS Residency</h1>
-            <p className="subtitle">DB Based Task Scheduler</p>
+            <p className="subtitle">
+              DB Based Task Scheduler
+              {/* The property this session is signed in to; a single-property setup has only "default" */}
+              {user.tenant && user.tenant !== 'default' && <span className="subtitle-tenant"> · {user.tenant}</span>}
+            </p>
           </div>
         </div>
       </header>
@@ -30,7 +30,8 @@ export const AuthProvider = ({ children }) => {
           });
 
           if (response.data.valid) {
-            setUser(JSON.parse(userData));
+            // Sessions from before multi-property support have no tenant stored
+            setUser({ ...JSON.parse(userData), tenant: response.data.tenant });
             // Set default auth header for all requests
             api.defaults.headers.common['Authorization'] = `Bearer ${token}`;
           } else {
@@ -53,11 +54,26 @@ export const AuthProvider = ({ children }) => {
     setError(null);
 
     try {
-      const response = await api.post('/auth/google', { token: googleCredential });
+      // Each property has its own link (?tenant=<id>); remember it for later sign-ins
+      const tenantParam = new URLSearchParams(window.location.search).get('tenant');
+      if (tenantParam) {
+        localStorage.setItem('tenant', tenantParam);
+      }
+      const requestedTenant = localStorage.getItem('tenant') || undefined;
+
+      let response;
+      try {
+        response = await api.post('/auth/google', { token: googleCredential, tenant: requestedTenant });
+      } catch (err) {
+        // A remembered property that no longer exists would block every sign-in; fall back to the default
+        if (!requestedTenant || err.response?.status !== 400) throw err;
+        localStorage.removeItem('tenant');
+        response = await api.post('/auth/google', { token: googleCredential });
+      }
 
-      const { token, email, name, picture, role, status } = response.data;
+      const { token, tenant, email, name, picture, role, status } = response.data;
 
-      const userData = { email, name, picture, role, status };
+      const userData = { email, name, picture, role, status, tenant };
 
       // Store token and user data
       localStorage.setItem('jwt_token', token);
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { taskService } from '../services/api';
+import { taskService, subscribeToChanges } from '../services/api';
 import { format } from 'date-fns';
 
 function Home() {
@@ -10,15 +10,21 @@ function Home() {
   const [selectedDate, setSelectedDate] = useState(new Date());
   const [selectedDepartment, setSelectedDepartment] = useState('all');
   const [departments, setDepartments] = useState([]);
+  const [snapshotVersion, setSnapshotVersion] = useState(null);
 
   useEffect(() => {
     fetchDepartments();
   }, []);
 
+  // Refetch when the task master changes instead of polling
+  useEffect(() => subscribeToChanges({
+    tasks: (change) => setSnapshotVersion(change.version),
+  }), []);
+
   useEffect(() => {
     fetchTasks();
     // eslint-disable-next-line react-hooks/exhaustive-deps
-  }, [activeTab, selectedDate, selectedDepartment]);
+  }, [activeTab, selectedDate, selectedDepartment, snapshotVersion]);
 
   const fetchDepartments = async () => {
     try {
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { masterService } from '../services/api';
+import { masterService, subscribeToChanges, applyRowChanges } from '../services/api';
 import './AdminPages.css';
 
 function TaskMaster() {
@@ -16,6 +16,7 @@ function TaskMaster() {
   const [filterDepartment, setFilterDepartment] = useState('');
   const [filterFrequency, setFilterFrequency] = useState('');
   const [searchQuery, setSearchQuery] = useState('');
+  const [searchResults, setSearchResults] = useState(null);
 
   const [formData, setFormData] = useState({
     activity: '',
@@ -23,18 +24,66 @@ function TaskMaster() {
     frequency: '',
     noOfTimes: 1,
     specificDates: '',
-    comments: ''
+    comments: '',
+    recurrenceRule: ''
   });
 
   useEffect(() => {
     loadData();
   }, []);
 
-  // Apply filters when tasks or filter values change
+  // Pick up changes made by other admins or directly in the sheet
+  useEffect(() => {
+    let version = null;
+    const reload = async () => {
+      try {
+        const response = await masterService.getAllTasks();
+        setTasks(response.data);
+      } catch (err) {
+        console.error('Error reloading tasks:', err);
+      }
+    };
+    return subscribeToChanges({
+      // Sent on every (re)connect: a different version means events were missed meanwhile
+      snapshot: (data) => {
+        if (version !== null && data.version !== version) reload();
+        version = data.version;
+      },
+      tasks: (change) => {
+        const missed = version !== null && change.version !== version + 1;
+        version = change.version;
+        if (change.reload || missed) {
+          reload();
+        } else {
+          setTasks((current) => applyRowChanges(current, change, change.tasks));
+        }
+      },
+    });
+  }, []);
+
+  // Search on the server (ranked, prefix matching) once typing pauses
+  useEffect(() => {
+    const query = searchQuery.trim();
+    if (!query) {
+      setSearchResults(null);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const response = await masterService.searchTasks(query);
+        setSearchResults(response.data);
+      } catch (err) {
+        console.error('Error searching tasks:', err);
+      }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [searchQuery, tasks]);
+
+  // Apply filters when tasks, search results or filter values change
   useEffect(() => {
     applyFilters();
     // eslint-disable-next-line react-hooks/exhaustive-deps
-  }, [tasks, filterDepartment, filterFrequency, searchQuery]);
+  }, [tasks, searchResults, filterDepartment, filterFrequency]);
 
   const loadData = async () => {
     setLoading(true);
@@ -57,7 +106,7 @@ function TaskMaster() {
   };
 
   const applyFilters = () => {
-    let result = [...tasks];
+    let result = searchResults !== null ? [...searchResults] : [...tasks];
 
     if (filterDepartment) {
       result = result.filter(t => t.department?.toLowerCase() === filterDepartment.toLowerCase());
@@ -67,14 +116,6 @@ function TaskMaster() {
       result = result.filter(t => t.frequency?.toLowerCase() === filterFrequency.toLowerCase());
     }
 
-    if (searchQuery) {
-      const query = searchQuery.toLowerCase();
-      result = result.filter(t =>
-        t.activity?.toLowerCase().includes(query) ||
-        t.comments?.toLowerCase().includes(query)
-      );
-    }
-
     setFilteredTasks(result);
   };
 
@@ -91,7 +132,8 @@ function TaskMaster() {
       frequency: frequencies[0] || '',
       noOfTimes: 1,
       specificDates: '',
-      comments: ''
+      comments: '',
+      recurrenceRule: ''
     });
     setShowForm(true);
   };
@@ -104,7 +146,8 @@ function TaskMaster() {
       frequency: task.frequency || '',
       noOfTimes: task.noOfTimes || 1,
       specificDates: task.specificDates || '',
-      comments: task.comments || ''
+      comments: task.comments || '',
+      recurrenceRule: task.recurrenceRule || ''
     });
     setShowForm(true);
   };
@@ -301,6 +344,16 @@ function TaskMaster() {
                   placeholder="Additional notes..."
                 />
               </div>
+              <div className="form-group">
+                <label>Recurrence Rule (RRULE, optional)</label>
+                <input
+                  type="text"
+                  name="recurrenceRule"
+                  value={formData.recurrenceRule}
+                  onChange={handleInputChange}
+                  placeholder="e.g., FREQ=MONTHLY;BYDAY=2TU"
+                />
+              </div>
               <div className="form-actions">
                 <button type="button" className="btn btn-secondary" onClick={handleCancel}>
                   Cancel
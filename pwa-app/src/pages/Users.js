@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { userService } from '../services/api';
+import { userService, subscribeToChanges, applyRowChanges } from '../services/api';
 import './AdminPages.css';
 
 function Users() {
@@ -27,6 +27,11 @@ function Users() {
     loadData();
   }, []);
 
+  // Pick up changes made by other admins
+  useEffect(() => subscribeToChanges({
+    users: (change) => setUsers((current) => applyRowChanges(current, change, change.users)),
+  }), []);
+
   // Apply filters when users or filter values change
   useEffect(() => {
     applyFilters();
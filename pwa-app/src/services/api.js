@@ -35,17 +35,31 @@ api.interceptors.response.use(
   }
 );
 
+// Expand a compact schedule ({ tasks, days: { date: [index, ...] } }) back to { date: [task, ...] }
+const expandCompactSchedule = (response) => {
+  const { tasks, days } = response.data;
+  const expanded = {};
+  Object.entries(days).forEach(([date, indexes]) => {
+    expanded[date] = indexes.map((index) => tasks[index]);
+  });
+  return { ...response, data: expanded };
+};
+
+// Range views ask for the compact format, which sends each task once instead of once per day
+const getCompact = (url, params = {}) =>
+  api.get(url, { params: { ...params, format: 'compact' } }).then(expandCompactSchedule);
+
 export const taskService = {
   // Schedule APIs - Get scheduled tasks for dates
   getTasksForToday: () => api.get('/schedule/today'),
   getTasksByDate: (date) => api.get(`/schedule/date/${date}`),
-  getTasksForCurrentWeek: () => api.get('/schedule/week'),
-  getTasksForWeek: (date) => api.get(`/schedule/week/${date}`),
-  getTasksForMonth: (year, month) => api.get(`/schedule/month/${year}/${month}`),
-  getTasksForQuarter: (year, quarter) => api.get(`/schedule/quarter/${year}/${quarter}`),
-  getTasksForHalfYear: (year, half) => api.get(`/schedule/half-year/${year}/${half}`),
-  getTasksForYear: (year) => api.get(`/schedule/year/${year}`),
-  getTasksForDateRange: (start, end) => api.get(`/schedule/range?start=${start}&end=${end}`),
+  getTasksForCurrentWeek: () => getCompact('/schedule/week'),
+  getTasksForWeek: (date) => getCompact(`/schedule/week/${date}`),
+  getTasksForMonth: (year, month) => getCompact(`/schedule/month/${year}/${month}`),
+  getTasksForQuarter: (year, quarter) => getCompact(`/schedule/quarter/${year}/${quarter}`),
+  getTasksForHalfYear: (year, half) => getCompact(`/schedule/half-year/${year}/${half}`),
+  getTasksForYear: (year) => getCompact(`/schedule/year/${year}`),
+  getTasksForDateRange: (start, end) => getCompact('/schedule/range', { start, end }),
   getTasksByDepartment: (department) => api.get(`/schedule/today/department/${department}`),
 
   // Master APIs - Reference data
@@ -57,6 +71,7 @@ export const masterService = {
   // Task Master CRUD
   getAllTasks: () => api.get('/master/tasks'),
   getTask: (rowNumber) => api.get(`/master/tasks/${rowNumber}`),
+  searchTasks: (query, limit = 200) => api.get('/master/tasks/search', { params: { q: query, limit } }),
   createTask: (task) => api.post('/master/tasks', task),
   updateTask: (rowNumber, task) => api.put(`/master/tasks/${rowNumber}`, task),
   deleteTask: (rowNumber) => api.delete(`/master/tasks/${rowNumber}`),
@@ -88,4 +103,53 @@ export const batchService = {
     api.post(`/batch/send-email/date/${date}?scheduleTime=${encodeURIComponent(scheduleTime)}`),
 };
 
+// Server-Sent Events of task and user changes; returns a function that closes the stream.
+// EventSource cannot send headers, so the token goes in the URL. The browser reconnects on its own
+// after a dropped connection, but gives up on an error status (an expired token, the subscriber
+// limit); the stream is then opened again with whatever token is current by then.
+const RESUBSCRIBE_DELAY_MS = 5000;
+
+export const subscribeToChanges = (handlers) => {
+  let source = null;
+  let retryTimer = null;
+  let closed = false;
+
+  const connect = () => {
+    const token = localStorage.getItem('jwt_token');
+    if (closed || !token) return;
+    const stream = new EventSource(`${API_BASE_URL}/events?access_token=${encodeURIComponent(token)}`);
+    Object.entries(handlers).forEach(([name, handler]) => {
+      stream.addEventListener(name, (event) => handler(JSON.parse(event.data)));
+    });
+    stream.addEventListener('error', () => {
+      if (stream.readyState === EventSource.CLOSED) {
+        retryTimer = setTimeout(connect, RESUBSCRIBE_DELAY_MS);
+      }
+    });
+    source = stream;
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (source) source.close();
+  };
+};
+
+// Apply a "tasks" or "users" change event to a list of sheet rows, returning the patched list.
+// A DELETED write removed a sheet row, so the rows below it move up by one; a REFRESHED event
+// already carries the new content of every row that changed, moved rows included.
+export const applyRowChanges = (rows, change, updated = []) => {
+  const deleted = change.deleted || [];
+  const byRow = new Map();
+  rows.forEach((row) => {
+    if (deleted.includes(row.rowNumber)) return;
+    const moved = change.type === 'DELETED' ? deleted.filter((d) => d < row.rowNumber).length : 0;
+    byRow.set(row.rowNumber - moved, moved ? { ...row, rowNumber: row.rowNumber - moved } : row);
+  });
+  updated.forEach((row) => byRow.set(row.rowNumber, row));
+  return [...byRow.values()].sort((a, b) => a.rowNumber - b.rowNumber);
+};
+
 export default api;